@@ -0,0 +1,34 @@
+#!/bin/bash
+
+# Copy src/database/init.sql into the init-scripts ConfigMaps that Postgres runs from
+# /docker-entrypoint-initdb.d, so Kubernetes and Helm deployments get the schema the backend validates.
+# Usage: scripts/sync-init-scripts.sh [--check]   (--check only reports ConfigMaps that are out of date)
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+SOURCE="$ROOT/src/database/init.sql"
+TARGETS=(
+    "$ROOT/k8s/base/init-scripts-configmap.yaml"
+    "$ROOT/helm/todo-app/templates/init-scripts-configmap.yaml"
+)
+
+# Everything up to the init.sql key is kept; the script follows as the last key, indented four spaces
+render() {
+    sed -n '1,/^  init.sql: |$/p' "$1"
+    sed -e 's/^/    /' -e 's/^ *$//' "$SOURCE"
+}
+
+stale=0
+for target in "${TARGETS[@]}"; do
+    if [ "${1:-}" = "--check" ]; then
+        if ! render "$target" | cmp -s - "$target"; then
+            echo "Out of date: ${target#$ROOT/}"
+            stale=1
+        fi
+    else
+        render "$target" > "$target.tmp"
+        mv "$target.tmp" "$target"
+        echo "Updated ${target#$ROOT/}"
+    fi
+done
+exit $stale
@@ -0,0 +1,75 @@
+#!/bin/bash
+
+# Search Latency Comparison Script
+# Seeds a synthetic todos table and compares the plans and latencies of the
+# legacy ILIKE scan, ranked full-text search and pg_trgm fuzzy search.
+# Usage: ./scripts/test-search-performance.sh [rows] [search-term]
+# Connection settings come from the standard PG* environment variables.
+
+set -e
+
+ROWS=${1:-10000000}
+SEARCH_TERM=${2:-deplo stagng}
+PSQL="psql -v ON_ERROR_STOP=1 -X -q"
+
+echo "🔎 Search latency comparison on $ROWS rows (term: '$SEARCH_TERM')"
+echo "========================================================"
+
+CURRENT_ROWS=$($PSQL -t -A -c "SELECT COUNT(*) FROM todos")
+if [ "$CURRENT_ROWS" -lt "$ROWS" ]; then
+    echo "🌱 Seeding $((ROWS - CURRENT_ROWS)) synthetic todos..."
+    $PSQL <<SQL
+INSERT INTO todos (title, description, priority, completed, due_date)
+SELECT
+    (ARRAY['Deploy', 'Review', 'Write', 'Setup', 'Test', 'Document'])[1 + (g % 6)] || ' '
+        || (ARRAY['staging', 'production', 'monitoring', 'backend', 'frontend', 'database'])[1 + ((g / 6) % 6)]
+        || ' task ' || g,
+    'Synthetic description ' || md5(g::text),
+    (ARRAY['LOW', 'MEDIUM', 'HIGH', 'URGENT'])[1 + (g % 4)],
+    g % 3 = 0,
+    CURRENT_TIMESTAMP + ((g % 60) - 30) * INTERVAL '1 day'
+FROM generate_series(1, $((ROWS - CURRENT_ROWS))) AS g;
+ANALYZE todos;
+SQL
+fi
+
+run_plan() {
+    echo ""
+    echo "📊 $1"
+    $PSQL -c "EXPLAIN (ANALYZE, BUFFERS, TIMING OFF) $2" | grep -E "Scan|Execution Time|Rows Removed"
+}
+
+ESCAPED_TERM=${SEARCH_TERM//\'/\'\'}
+FIRST_WORD=${ESCAPED_TERM%% *}
+
+run_plan "Legacy ILIKE scan (findByTitleContainingIgnoreCase + description)" \
+    "SELECT * FROM todos WHERE title ILIKE '%$FIRST_WORD%' OR description ILIKE '%$FIRST_WORD%' LIMIT 100"
+
+run_plan "Full-text search (mode=fulltext)" \
+    "SELECT t.* FROM todos t, to_tsquery('english', '$FIRST_WORD:*') AS q(query)
+     WHERE t.search_vector @@ q.query ORDER BY ts_rank(t.search_vector, q.query) DESC, t.id DESC LIMIT 100"
+
+run_plan "Trigram fuzzy search (mode=fuzzy, similarity=0.3)" \
+    "SELECT t.* FROM todos t
+     WHERE t.title ILIKE '%$ESCAPED_TERM%' OR t.description ILIKE '%$ESCAPED_TERM%'
+        OR '$ESCAPED_TERM' <% t.title OR '$ESCAPED_TERM' <% t.description
+     ORDER BY GREATEST(word_similarity('$ESCAPED_TERM', t.title),
+                       word_similarity('$ESCAPED_TERM', COALESCE(t.description, ''))) DESC, t.id DESC
+     LIMIT 100"
+
+if [ -n "$API_URL" ]; then
+    echo ""
+    echo "🌐 End-to-end latency against $API_URL (10 requests each)"
+    for MODE in fulltext fuzzy; do
+        TOTAL=0
+        for i in $(seq 1 10); do
+            TIME=$(curl -s -o /dev/null -w "%{time_total}" -G "$API_URL/api/todos/search" \
+                --data-urlencode "q=$SEARCH_TERM" --data-urlencode "mode=$MODE")
+            TOTAL=$(echo "$TOTAL + $TIME" | bc)
+        done
+        echo "  $MODE: average $(echo "scale=4; $TOTAL / 10" | bc)s"
+    done
+fi
+
+echo ""
+echo "✅ Search latency comparison completed!"
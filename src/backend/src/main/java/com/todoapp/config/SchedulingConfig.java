@@ -0,0 +1,13 @@
+package com.todoapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration to enable scheduled background jobs
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled methods such as the counter reconciliation job
+}
@@ -1,18 +1,57 @@
 package com.todoapp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangeFeed;
+import com.todoapp.pagination.CursorPage;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.pagination.TodoSortField;
+import com.todoapp.repository.TodoChangeMarker;
+import com.todoapp.repository.TodoField;
+import com.todoapp.repository.TodoPatch;
+import com.todoapp.repository.TodoVersionView;
+import com.todoapp.repository.TodoView;
+import com.todoapp.repository.TodoWriteResult;
+import com.todoapp.search.TodoSearchIndex;
+import com.todoapp.search.TodoSuggestion;
+import com.todoapp.search.TodoSuggestionIndex;
+import com.todoapp.service.TodoExportService;
+import com.todoapp.service.TodoImportService;
 import com.todoapp.service.TodoService;
+import com.todoapp.service.TodoSyncService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -21,15 +60,48 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 @RestController
 @RequestMapping("/api/todos")
-@CrossOrigin(origins = "*") // In production, restrict to specific domains
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG) // In production, restrict to specific domains
 public class TodoController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+    private static final int EXPORT_GZIP_BUFFER_SIZE = 64 * 1024;
+    // Versions start at 0, so an If-Match that names no valid version can never match
+    private static final long NO_VERSION = -1L;
+
     private final TodoService todoService;
+    private final TodoImportService todoImportService;
+    private final TodoExportService todoExportService;
+    private final TodoSyncService todoSyncService;
+    private final TodoChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<TodoSearchIndex> searchIndex;
+    private final ObjectProvider<TodoSuggestionIndex> suggestionIndex;
+    private final int maxPageSize;
+    private final int maxBatchSize;
+    private final double defaultSimilarity;
 
     @Autowired
     @SuppressFBWarnings("EI_EXPOSE_REP2")
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, TodoImportService todoImportService,
+                          TodoExportService todoExportService, TodoSyncService todoSyncService,
+                          TodoChangeFeed changeFeed, ObjectMapper objectMapper,
+                          ObjectProvider<TodoSearchIndex> searchIndex,
+                          ObjectProvider<TodoSuggestionIndex> suggestionIndex,
+                          @Value("${app.pagination.max-page-size:100}") int maxPageSize,
+                          @Value("${app.batch.max-size:5000}") int maxBatchSize,
+                          @Value("${app.search.similarity-threshold:0.3}") double defaultSimilarity) {
         this.todoService = todoService;
+        this.todoImportService = todoImportService;
+        this.todoExportService = todoExportService;
+        this.todoSyncService = todoSyncService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchSize = maxBatchSize;
+        this.defaultSimilarity = defaultSimilarity;
     }
 
     /**
@@ -39,135 +111,597 @@ public class TodoController {
     public ResponseEntity<Todo> createTodo(@Valid @RequestBody Todo todo) {
         try {
             Todo createdTodo = todoService.createTodo(todo);
-            return new ResponseEntity<>(createdTodo, HttpStatus.CREATED);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(createdTodo)).body(createdTodo);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
     /**
-     * Get all todos with pagination
+     * Create many todos at once.
+     * Valid items are inserted even if others fail validation; failures are listed by index.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<TodoService.BatchResult> createTodos(@RequestBody List<Todo> todos) {
+        if (todos.isEmpty() || todos.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        TodoService.BatchResult result = todoService.createTodos(todos);
+        HttpStatus status = result.getCreatedIds().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return new ResponseEntity<>(result, status);
+    }
+
+    /**
+     * Complete, reopen, reschedule, reprioritize or delete many todos at once, selected by
+     * {@code ids} or by {@code filter} (completed, priority, dueFrom, dueBefore)
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<TodoService.BulkResult> bulkMutate(@RequestBody TodoService.BulkMutation mutation) {
+        try {
+            return ResponseEntity.ok(todoService.bulkMutate(mutation));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Import todos from a CSV (text/csv, with a header row) or NDJSON (application/x-ndjson) upload.
+     * The body is streamed; the response reports imported and rejected rows once the import finishes.
+     */
+    @PostMapping(value = "/imports", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<TodoImportService.ImportReport> importTodos(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        TodoImportService.ImportFormat format = TodoImportService.ImportFormat.fromContentType(contentType)
+                .orElse(null);
+        if (format == null) {
+            return new ResponseEntity<>(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        TodoImportService.ImportReport report = todoImportService.importTodos(body, format);
+        HttpStatus status = report.getState() == TodoImportService.ImportState.COMPLETED
+                ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+        return new ResponseEntity<>(report, status);
+    }
+
+    /**
+     * Progress of running and recent imports, newest first
+     */
+    @GetMapping("/imports")
+    public ResponseEntity<List<TodoImportService.ImportReport>> getImports() {
+        return ResponseEntity.ok(todoImportService.getRecentImports());
+    }
+
+    /**
+     * Progress of one import
+     */
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<TodoImportService.ImportReport> getImport(@PathVariable String id) {
+        return todoImportService.getImport(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get all todos with pagination.
+     * Passing {@code cursor} (empty for the first page) switches to keyset pagination without a total count.
+     * Passing {@code fields} (comma-separated properties) returns only those properties plus the id.
      */
     @GetMapping
-    public ResponseEntity<Page<Todo>> getAllTodos(
+    public ResponseEntity<?> getAllTodos(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
-        
-        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-            Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Todo> todos = todoService.getAllTodos(pageable);
-        
-        return ResponseEntity.ok(todos);
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        try {
+            if (fields != null && cursor == null) {
+                Set<TodoField> selected = TodoField.parse(fields);
+                CursorRequest order = cursorRequest(null, size, sortBy, sortDir);
+                return ifCollectionModified(webRequest,
+                    () -> ResponseEntity.ok(todoService.getTodoFields(selected, order, page)));
+            }
+            if (fields != null) {
+                return ifCollectionModified(webRequest,
+                    () -> fieldListing(fields, null, null, cursor, size, sortBy, sortDir));
+            }
+            if (cursor != null) {
+                CursorRequest request = cursorRequest(cursor, size, sortBy, sortDir);
+                return ifCollectionModified(webRequest, () -> ResponseEntity.ok(todoService.getAllTodos(request)));
+            }
+
+            String property = TodoSortField.fromProperty(sortBy).getProperty();
+            Sort sort = sortDir.equalsIgnoreCase("desc") ?
+                Sort.by(property).descending() : Sort.by(property).ascending();
+
+            Pageable pageable = PageRequest.of(page, pageSize(size), sort);
+            return ifCollectionModified(webRequest, () -> {
+                Page<TodoView> todos = todoService.getAllTodos(pageable);
+                return ResponseEntity.ok(todos);
+            });
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Get all todos without pagination
      */
     @GetMapping("/all")
-    public ResponseEntity<List<Todo>> getAllTodosList() {
-        List<Todo> todos = todoService.getAllTodos();
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<?> getAllTodosList(@RequestParam(required = false) String fields, WebRequest webRequest) {
+        if (fields != null) {
+            return ifCollectionModified(webRequest, () -> fieldListing(fields, null, null, null, 0, "id", "desc"));
+        }
+        return ifCollectionModified(webRequest, () -> {
+            List<TodoView> todos = todoService.getAllTodos();
+            return ResponseEntity.ok(todos);
+        });
+    }
+
+    /**
+     * Stream all todos as newline-delimited JSON, one row at a time
+     */
+    @GetMapping("/all/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllTodos() {
+        ObjectWriter writer = objectMapper.writerFor(Todo.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // NDJSON separates documents with newlines only, not Jackson's default root separator
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                todoService.streamAllTodos(todo -> {
+                    try {
+                        writer.writeValue(generator, todo);
+                        generator.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Export todos as CSV or NDJSON, streamed from PostgreSQL COPY without building Todo objects.
+     * Narrow with one of {@code view} (overdue, due-today, due-this-week, high-priority),
+     * {@code completed} or {@code priority}; {@code gzip=true} compresses the body (Content-Encoding: gzip).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Todo.Priority priority,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        TodoExportService.ExportFormat exportFormat;
+        TodoExportService.ExportView exportView;
+        try {
+            exportFormat = TodoExportService.ExportFormat.fromParam(format);
+            exportView = view != null ? TodoExportService.ExportView.fromParam(view) : TodoExportService.ExportView.ALL;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int selectors = (view != null ? 1 : 0) + (completed != null ? 1 : 0) + (priority != null ? 1 : 0);
+        if (selectors > 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, EXPORT_GZIP_BUFFER_SIZE);
+                todoExportService.exportTodos(exportFormat, exportView, completed, priority, compressed);
+                compressed.finish();
+            } else {
+                todoExportService.exportTodos(exportFormat, exportView, completed, priority, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("todos." + exportFormat.getExtension())
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
      * Get todo by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Todo> getTodoById(@PathVariable Long id) {
+    public ResponseEntity<TodoView> getTodoById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return todoService.getTodoById(id)
+                    .map(TodoController::withValidators)
+                    .orElse(ResponseEntity.notFound().build());
+        }
+        // Revalidation only reads the version and update time; the row is loaded and serialized on a change
+        Optional<TodoVersionView> version = todoService.getTodoVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(eTag(version.get().getVersion()),
+                epochMillis(version.get().getUpdatedAt()))) {
+            return null;
+        }
+        // checkNotModified already put the validators on the response
         return todoService.getTodoById(id)
-                .map(todo -> ResponseEntity.ok(todo))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Get many todos by id in one query, e.g. {@code ?ids=1,2,3}.
+     * Todos come back in request order; ids that do not exist are listed under {@code missingIds}.
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<TodoService.MultiGetResult> getTodosByIds(@RequestParam List<Long> ids) {
+        return lookup(ids);
+    }
+
+    /**
+     * Same as {@code GET ?ids=} with the ids in a JSON array body, for lists too long for a URL
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<TodoService.MultiGetResult> lookupTodos(@RequestBody List<Long> ids) {
+        return lookup(ids);
+    }
+
+    private ResponseEntity<TodoService.MultiGetResult> lookup(List<Long> ids) {
+        try {
+            return ResponseEntity.ok(todoService.getTodosByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Update an existing todo
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Todo> updateTodo(@PathVariable Long id, @Valid @RequestBody Todo todoDetails) {
+    public ResponseEntity<Todo> updateTodo(@PathVariable Long id, @Valid @RequestBody Todo todoDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+        return toResponse(todoService.updateTodo(id, todoDetails, expectedVersion(ifMatch)));
+    }
+
+    /**
+     * Apply a JSON Merge Patch (RFC 7396): only the members present are written, null clears description
+     * and dueDate, and unknown members are ignored
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Todo> patchTodo(@PathVariable Long id, @RequestBody JsonNode mergePatch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                          String ifMatch) {
         try {
-            Todo updatedTodo = todoService.updateTodo(id, todoDetails);
-            return ResponseEntity.ok(updatedTodo);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return toResponse(todoService.patchTodo(id, toPatch(mergePatch), expectedVersion(ifMatch)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private TodoPatch toPatch(JsonNode mergePatch) {
+        if (!mergePatch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        TodoPatch patch = TodoPatch.empty();
+        JsonNode title = mergePatch.get("title");
+        if (title != null) {
+            if (!title.isTextual()) {
+                throw new IllegalArgumentException("title must be a string");
+            }
+            patch = patch.withTitle(title.textValue());
+        }
+        JsonNode description = mergePatch.get("description");
+        if (description != null) {
+            if (!description.isTextual() && !description.isNull()) {
+                throw new IllegalArgumentException("description must be a string or null");
+            }
+            patch = patch.withDescription(description.textValue());
         }
+        JsonNode completed = mergePatch.get("completed");
+        if (completed != null) {
+            if (!completed.isBoolean()) {
+                throw new IllegalArgumentException("completed must be a boolean");
+            }
+            patch = patch.withCompleted(completed.booleanValue());
+        }
+        JsonNode priority = mergePatch.get("priority");
+        if (priority != null) {
+            if (priority.isNull()) {
+                throw new IllegalArgumentException("priority cannot be cleared");
+            }
+            patch = patch.withPriority(objectMapper.convertValue(priority, Todo.Priority.class));
+        }
+        JsonNode dueDate = mergePatch.get("dueDate");
+        if (dueDate != null) {
+            LocalDateTime due = dueDate.isNull() ? null : objectMapper.convertValue(dueDate, LocalDateTime.class);
+            patch = patch.withDueDate(due);
+        }
+        return patch;
+    }
+
+    private static ResponseEntity<Todo> toResponse(TodoWriteResult result) {
+        return switch (result.getStatus()) {
+            case APPLIED -> result.getTodo()
+                    .map(TodoController::withValidators)
+                    .orElse(ResponseEntity.notFound().build());
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case VERSION_MISMATCH -> ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        };
+    }
+
+    private static ResponseEntity<Todo> withValidators(Todo todo) {
+        return ResponseEntity.ok()
+                .eTag(eTag(todo))
+                .lastModified(epochMillis(todo.getUpdatedAt()))
+                .body(todo);
+    }
+
+    private static ResponseEntity<TodoView> withValidators(TodoView todo) {
+        return ResponseEntity.ok()
+                .eTag(eTag(todo.version()))
+                .lastModified(epochMillis(todo.updatedAt()))
+                .body(todo);
     }
 
     /**
-     * Delete a todo
+     * A toggle buffered by write-behind has no version until it is flushed, so it is answered 202 without validators
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTodo(@PathVariable Long id) {
+    private static ResponseEntity<TodoView> toggleResponse(TodoView todo) {
+        return todo.version() == null ? ResponseEntity.accepted().body(todo) : withValidators(todo);
+    }
+
+    private static String eTag(Todo todo) {
+        return eTag(todo.getVersion());
+    }
+
+    /**
+     * Strong entity tag derived from the row version
+     */
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak entity tag for collection responses, derived from the table-level change marker
+     */
+    private static String collectionETag(TodoChangeMarker marker) {
+        return "W/\"c" + marker.getChangeCount() + "\"";
+    }
+
+    /**
+     * updated_at is stamped by the database trigger in UTC, whatever the JVM's default zone is
+     */
+    private static long epochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? -1 : timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Answer a collection GET with 304 from the change marker before any todo is read. The marker is read
+     * first, so a write racing the response can only leave validators older than the body, never newer.
+     * No Last-Modified is sent: timestamps cannot order writes from transactions that commit out of order.
+     */
+    private <R extends ResponseEntity<?>> R ifCollectionModified(WebRequest webRequest, Supplier<R> response) {
+        TodoChangeMarker marker = todoService.getChangeMarker();
+        if (webRequest.checkNotModified(collectionETag(marker))) {
+            return null;
+        }
+        return response.get();
+    }
+
+    /**
+     * Version named by an If-Match header, or null when the write is unconditional (no header or "*").
+     * Weak or unparsable tags never match, as If-Match requires strong comparison.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_VERSION;
+        }
         try {
-            todoService.deleteTodo(id);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
         }
     }
 
+    /**
+     * Delete a todo
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTodo(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+        return switch (todoService.deleteTodo(id, expectedVersion(ifMatch)).getStatus()) {
+            case APPLIED -> ResponseEntity.noContent().build();
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case VERSION_MISMATCH -> ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        };
+    }
+
     /**
      * Mark todo as completed
      */
     @PatchMapping("/{id}/complete")
-    public ResponseEntity<Todo> markAsCompleted(@PathVariable Long id) {
-        try {
-            Todo completedTodo = todoService.markAsCompleted(id);
-            return ResponseEntity.ok(completedTodo);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<TodoView> markAsCompleted(@PathVariable Long id) {
+        return todoService.markAsCompleted(id)
+                .map(TodoController::toggleResponse)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Mark todo as incomplete
      */
     @PatchMapping("/{id}/incomplete")
-    public ResponseEntity<Todo> markAsIncomplete(@PathVariable Long id) {
-        try {
-            Todo incompleteTodo = todoService.markAsIncomplete(id);
-            return ResponseEntity.ok(incompleteTodo);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<TodoView> markAsIncomplete(@PathVariable Long id) {
+        return todoService.markAsIncomplete(id)
+                .map(TodoController::toggleResponse)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Get todos by completion status
      */
     @GetMapping("/status/{completed}")
-    public ResponseEntity<List<Todo>> getTodosByStatus(@PathVariable boolean completed) {
-        List<Todo> todos = todoService.getTodosByStatus(completed);
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<?> getTodosByStatus(
+            @PathVariable boolean completed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        return ifCollectionModified(webRequest, () -> {
+            if (fields != null) {
+                return fieldListing(fields, completed, null, cursor, size, sortBy, sortDir);
+            }
+            if (cursor != null) {
+                return cursorPage(cursor, size, sortBy, sortDir,
+                    request -> todoService.getTodosByStatus(completed, request));
+            }
+            List<TodoView> todos = todoService.getTodosByStatus(completed);
+            return ResponseEntity.ok(todos);
+        });
     }
 
     /**
      * Get todos by priority
      */
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Todo>> getTodosByPriority(@PathVariable Todo.Priority priority) {
-        List<Todo> todos = todoService.getTodosByPriority(priority);
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<?> getTodosByPriority(
+            @PathVariable Todo.Priority priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        return ifCollectionModified(webRequest, () -> {
+            if (fields != null) {
+                return fieldListing(fields, null, priority, cursor, size, sortBy, sortDir);
+            }
+            if (cursor != null) {
+                return cursorPage(cursor, size, sortBy, sortDir,
+                    request -> todoService.getTodosByPriority(priority, request));
+            }
+            List<TodoView> todos = todoService.getTodosByPriority(priority);
+            return ResponseEntity.ok(todos);
+        });
     }
 
     /**
-     * Search todos by title or description
+     * Search todos by title or description, ranked by relevance.
+     * Passing {@code cursor} (empty for the first page) paginates by rank.
+     * {@code mode=fuzzy} switches to trigram matching that tolerates typos and word fragments,
+     * returning the {@code size} most similar todos.
+     * {@code mode=lucene} answers from the embedded index (when enabled) with highlighting,
+     * optionally filtered by {@code completed} and {@code priority}.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Todo>> searchTodos(@RequestParam String q) {
-        List<Todo> todos = todoService.searchTodos(q);
+    public ResponseEntity<?> searchTodos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "fulltext") String mode,
+            @RequestParam(required = false) Double similarity,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Todo.Priority priority) {
+        try {
+            if ("lucene".equalsIgnoreCase(mode)) {
+                TodoSearchIndex index = searchIndex.getIfAvailable();
+                if (index == null) {
+                    return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+                }
+                return ResponseEntity.ok(index.search(q, completed, priority, pageSize(size)));
+            }
+            if ("fuzzy".equalsIgnoreCase(mode)) {
+                double threshold = similarity != null ? similarity : defaultSimilarity;
+                return ResponseEntity.ok(todoService.fuzzySearchTodos(q, threshold, pageSize(size)));
+            }
+            if (!"fulltext".equalsIgnoreCase(mode)) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (cursor != null) {
+                return ResponseEntity.ok(todoService.searchTodos(q, cursor, pageSize(size)));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<TodoView> todos = todoService.searchTodos(q);
         return ResponseEntity.ok(todos);
     }
 
+    /**
+     * Delta sync: todos changed and ids deleted since {@code since} (omit it for a full snapshot), plus the
+     * token for the next call, one page at a time while {@code hasMore} is set. 410 Gone means the token is too
+     * old and the client must resync from scratch.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TodoSyncService.ChangeSet> getChanges(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(todoSyncService.getChangesSince(since));
+        } catch (TodoSyncService.ChangeTokenExpiredException e) {
+            return new ResponseEntity<>(HttpStatus.GONE);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Live feed of todo changes as Server-Sent Events named created, updated, completed, reopened and deleted.
+     * With {@code statistics=true} the feed also carries throttled statistics snapshots. A {@code resync} event
+     * means changes may have been missed and the client should reload. 503 when too many streams are open.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(defaultValue = "false") boolean statistics) {
+        return changeFeed.subscribe(statistics)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    /**
+     * Autocomplete todo titles from the in-memory prefix index (no database access).
+     * 503 while the index is disabled or still loading.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<TodoSuggestion>> suggestTodos(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        TodoSuggestionIndex index = suggestionIndex.getIfAvailable();
+        if (index == null || !index.isReady()) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return ResponseEntity.ok(index.suggest(prefix, limit));
+    }
+
     /**
      * Get overdue todos
      */
     @GetMapping("/overdue")
-    public ResponseEntity<List<Todo>> getOverdueTodos() {
-        List<Todo> todos = todoService.getOverdueTodos();
+    public ResponseEntity<?> getOverdueTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        if (cursor != null) {
+            return cursorPage(cursor, size, sortBy, sortDir, todoService::getOverdueTodos);
+        }
+        List<TodoView> todos = todoService.getOverdueTodos();
         return ResponseEntity.ok(todos);
     }
 
@@ -175,8 +709,15 @@ public class TodoController {
      * Get todos due today
      */
     @GetMapping("/due-today")
-    public ResponseEntity<List<Todo>> getTodosDueToday() {
-        List<Todo> todos = todoService.getTodosDueToday();
+    public ResponseEntity<?> getTodosDueToday(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        if (cursor != null) {
+            return cursorPage(cursor, size, sortBy, sortDir, todoService::getTodosDueToday);
+        }
+        List<TodoView> todos = todoService.getTodosDueToday();
         return ResponseEntity.ok(todos);
     }
 
@@ -184,8 +725,15 @@ public class TodoController {
      * Get todos due this week
      */
     @GetMapping("/due-this-week")
-    public ResponseEntity<List<Todo>> getTodosDueThisWeek() {
-        List<Todo> todos = todoService.getTodosDueThisWeek();
+    public ResponseEntity<?> getTodosDueThisWeek(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        if (cursor != null) {
+            return cursorPage(cursor, size, sortBy, sortDir, todoService::getTodosDueThisWeek);
+        }
+        List<TodoView> todos = todoService.getTodosDueThisWeek();
         return ResponseEntity.ok(todos);
     }
 
@@ -193,8 +741,15 @@ public class TodoController {
      * Get high priority incomplete todos
      */
     @GetMapping("/high-priority")
-    public ResponseEntity<List<Todo>> getHighPriorityIncompleteTodos() {
-        List<Todo> todos = todoService.getHighPriorityIncompleteTodos();
+    public ResponseEntity<?> getHighPriorityIncompleteTodos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        if (cursor != null) {
+            return cursorPage(cursor, size, sortBy, sortDir, todoService::getHighPriorityIncompleteTodos);
+        }
+        List<TodoView> todos = todoService.getHighPriorityIncompleteTodos();
         return ResponseEntity.ok(todos);
     }
 
@@ -223,4 +778,45 @@ public class TodoController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Todo API is healthy!");
     }
+
+    /**
+     * Run a keyset-paginated lookup, answering 400 for unknown sort fields or malformed cursors
+     */
+    private ResponseEntity<?> cursorPage(String cursor, int size, String sortBy, String sortDir,
+                                         Function<CursorRequest, CursorPage<TodoView>> lookup) {
+        try {
+            return ResponseEntity.ok(lookup.apply(cursorRequest(cursor, size, sortBy, sortDir)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * List only the requested fields of matching todos, as keyset pages when a cursor is given.
+     * Answers 400 for unknown fields, unknown sort fields or malformed cursors.
+     */
+    private ResponseEntity<?> fieldListing(String fields, Boolean completed, Todo.Priority priority, String cursor,
+                                           int size, String sortBy, String sortDir) {
+        try {
+            Set<TodoField> selected = TodoField.parse(fields);
+            if (cursor != null) {
+                CursorRequest request = cursorRequest(cursor, size, sortBy, sortDir);
+                return ResponseEntity.ok(todoService.getTodoFields(completed, priority, selected, request));
+            }
+            return ResponseEntity.ok(todoService.getAllTodoFields(completed, priority, selected));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private CursorRequest cursorRequest(String cursor, int size, String sortBy, String sortDir) {
+        return CursorRequest.of(sortBy, sortDir, cursor, pageSize(size));
+    }
+
+    /**
+     * Clamp a requested page size to [1, app.pagination.max-page-size]
+     */
+    private int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
 }
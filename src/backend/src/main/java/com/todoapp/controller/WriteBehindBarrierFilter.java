@@ -0,0 +1,52 @@
+package com.todoapp.controller;
+
+import com.todoapp.service.impl.TodoCompletionBuffer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Flushes buffered completion toggles before every todo API request other than a toggle, so reads see
+ * them and writes apply after them; a request arriving during a flush waits for it to commit. Costs one
+ * map-size check while the buffer is empty. Only this instance's buffer is covered: a read served by
+ * another replica sees a toggle once its flush commits.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindBarrierFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/todos";
+
+    private final TodoCompletionBuffer completionBuffer;
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public WriteBehindBarrierFilter(TodoCompletionBuffer completionBuffer) {
+        this.completionBuffer = completionBuffer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // The servlet path excludes server.servlet.context-path, which the dev and prod profiles set
+        String path = request.getServletPath();
+        return !path.startsWith(API_PREFIX) || isToggle(request.getMethod(), path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        completionBuffer.awaitWritten();
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isToggle(String method, String path) {
+        return "PATCH".equals(method) && (path.endsWith("/complete") || path.endsWith("/incomplete"));
+    }
+}
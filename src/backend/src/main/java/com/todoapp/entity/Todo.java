@@ -1,8 +1,10 @@
 package com.todoapp.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 /**
@@ -10,10 +12,18 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "todos")
+@DynamicUpdate
 public class Todo {
 
+    /**
+     * Ids reserved per todos_id_seq call; must match the sequence increment
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_id_seq")
+    // Ids are reserved in blocks (pooled-lo) so inserts can be JDBC-batched
+    @SequenceGenerator(name = "todos_id_seq", sequenceName = "todos_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -28,6 +38,7 @@ public class Todo {
     @Column(nullable = false)
     private boolean completed = false;
 
+    // Both timestamps are stamped by the database trigger from its own clock in UTC; whatever is sent is ignored
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -41,20 +52,23 @@ public class Todo {
     @Enumerated(EnumType.STRING)
     private Priority priority = Priority.MEDIUM;
 
+    // Bumped by every write; conditional writes compare it in their WHERE clause and clients see it as the ETag
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     // Priority enum
     public enum Priority {
         LOW, MEDIUM, HIGH, URGENT
     }
 
-    // Default constructor
+    // Default constructor; Hibernate and JSON binding use it, so it does not read the clock
     public Todo() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
     }
 
     // Constructor with title
     public Todo(String title) {
-        this();
         this.title = title;
     }
 
@@ -79,7 +93,6 @@ public class Todo {
 
     public void setTitle(String title) {
         this.title = title;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public String getDescription() {
@@ -88,7 +101,6 @@ public class Todo {
 
     public void setDescription(String description) {
         this.description = description;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public boolean isCompleted() {
@@ -97,7 +109,6 @@ public class Todo {
 
     public void setCompleted(boolean completed) {
         this.completed = completed;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public LocalDateTime getCreatedAt() {
@@ -122,7 +133,10 @@ public class Todo {
 
     public void setDueDate(LocalDateTime dueDate) {
         this.dueDate = dueDate;
-        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getVersion() {
+        return version;
     }
 
     public Priority getPriority() {
@@ -131,19 +145,6 @@ public class Todo {
 
     public void setPriority(Priority priority) {
         this.priority = priority;
-        this.updatedAt = LocalDateTime.now();
-    }
-
-    // Pre-persist hook to set timestamps
-    @PrePersist
-    protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-    }
-
-    @PreUpdate
-    protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
     }
 
     @Override
@@ -0,0 +1,397 @@
+package com.todoapp.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.todoapp.repository.TodoView;
+import com.todoapp.search.AppliedVersions;
+import com.todoapp.search.TodoChangeFollower;
+import com.todoapp.service.TodoService;
+import com.todoapp.service.TodoSyncService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Server-Sent Events feed of todo changes, optionally with throttled statistics snapshots.
+ * Writes served by this instance are published as their {@link TodoChangedEvent}s arrive; writes served by
+ * other instances are picked up from the delta-sync feed ({@link TodoChangeFollower}) and published as
+ * {@code created}, {@code updated} and {@code deleted}. Each todo version is
+ * published once, whichever source delivers it first; when the follower's token expires subscribers get a
+ * {@code resync} event, since changes may have been missed.
+ * Every subscriber has a bounded queue that drops its oldest message when full, so publishing from a
+ * write path never blocks. Each subscriber with queued messages gets its own send loop on a pooled thread
+ * that exits once the queue is empty, so a client that reads slowly only holds up its own connection; the
+ * pool has one thread per allowed subscriber, and subscriptions beyond {@code app.stream.max-subscribers}
+ * are refused. A send blocked for longer than {@code app.stream.send-timeout} detaches the subscriber; its
+ * emitter is completed once the container gives up on the write. Each event is serialized once and shared
+ * by all subscribers.
+ */
+@Component
+public class TodoChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoChangeFeed.class);
+
+    private static final String STATISTICS_EVENT = "statistics";
+    private static final String RESYNC_EVENT = "resync";
+    private static final Message HEARTBEAT = new Message(0, null, null, 0);
+
+    private final TodoService todoService;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int maxSubscribers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Versions already published, so a change delivered both as an event and by the follower goes out once
+    private final AppliedVersions published = new AppliedVersions();
+    private final TodoChangeFollower follower;
+    private final FollowerTarget followerTarget = new FollowerTarget();
+    // Cleared while nobody is subscribed; the follower restarts from now on the next subscription
+    private final AtomicBoolean following = new AtomicBoolean();
+    private final AtomicLong sequence = new AtomicLong();
+    // Set by every change so statistics are only recomputed when something happened
+    private final AtomicBoolean statisticsStale = new AtomicBoolean(true);
+    private final ThreadPoolExecutor senders;
+    private final Counter droppedCounter;
+    private final Counter stalledCounter;
+    private final Counter rejectedCounter;
+    private final Timer lagTimer;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoChangeFeed(TodoService todoService, TodoSyncService syncService, ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.stream.buffer-size:256}") int bufferSize,
+                          @Value("${app.stream.timeout:30m}") Duration timeout,
+                          @Value("${app.stream.send-timeout:PT10S}") Duration sendTimeout,
+                          @Value("${app.stream.max-subscribers:200}") int maxSubscribers) {
+        this.todoService = todoService;
+        this.follower = new TodoChangeFollower(syncService);
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadCount = new AtomicInteger();
+        // A subscriber drains on at most one thread, so one thread per allowed subscriber means a stalled
+        // connection never delays another; idle threads time out, so the pool only grows with the load
+        this.senders = new ThreadPoolExecutor(maxSubscribers, maxSubscribers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "todo-stream-sender-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+        this.droppedCounter = Counter.builder("todo_stream_events_dropped_total")
+                .description("Events dropped from full subscriber buffers (oldest first)")
+                .register(meterRegistry);
+        this.stalledCounter = Counter.builder("todo_stream_stalled_subscribers_total")
+                .description("Subscribers disconnected because a send blocked longer than the send timeout")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("todo_stream_rejected_subscriptions_total")
+                .description("Subscriptions refused because max-subscribers connections were already open")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("todo_stream_event_lag_seconds")
+                .description("Time from a change to its delivery to a stream subscriber")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("todo_stream_connections", subscribers, Set::size)
+                .description("Open /api/todos/stream connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a new subscription, or nothing when max-subscribers connections are already open.
+     * The emitter completes when the client disconnects or the timeout passes.
+     */
+    public Optional<SseEmitter> subscribe(boolean statistics) {
+        if (following.compareAndSet(false, true)) {
+            follower.start();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, statistics);
+        // Subscribers only leave the set concurrently, so the check and the add cannot overshoot the limit
+        synchronized (subscribers) {
+            if (subscribers.size() >= maxSubscribers) {
+                rejectedCounter.increment();
+                return Optional.empty();
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+        if (statistics) {
+            statisticsStale.set(true);
+        }
+        return Optional.of(emitter);
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        TodoChangedEvent.Type type = event.getType();
+        if (type == TodoChangedEvent.Type.DELETED) {
+            published.deleteOnce(event.getTodoId(),
+                    () -> publishChange(type, event.getTodoId(), null, event.getOccurredAtMillis()));
+        } else {
+            TodoView todo = TodoView.of(event.getTodo());
+            published.applyIfNewer(todo.id(), todo.version(),
+                    () -> publishChange(type, todo.id(), todo, event.getOccurredAtMillis()));
+        }
+    }
+
+    /**
+     * Publish writes served by other instances, while anyone is subscribed
+     */
+    @Scheduled(fixedDelayString = "${app.stream.catch-up-interval:PT2S}")
+    public void catchUp() {
+        published.prune();
+        if (subscribers.isEmpty()) {
+            following.set(false);
+            return;
+        }
+        try {
+            follower.poll(followerTarget);
+        } catch (RuntimeException e) {
+            logger.warn("Catching up the change stream failed; retrying on the next poll", e);
+        }
+    }
+
+    /**
+     * Push a statistics snapshot to subscribers that asked for one, at most once per interval and only
+     * after a change. The query is shared with concurrent /statistics calls (see CoalescingTodoService).
+     */
+    @Scheduled(fixedDelayString = "${app.stream.statistics-interval:PT5S}")
+    public void publishStatistics() {
+        if (subscribers.stream().noneMatch(subscriber -> subscriber.statistics)
+                || !statisticsStale.getAndSet(false)) {
+            return;
+        }
+        publish(STATISTICS_EVENT, todoService.getTodoStatistics(), System.currentTimeMillis(), true);
+    }
+
+    /**
+     * Comment lines keep idle connections open through proxies and reveal clients that went away
+     */
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    /**
+     * Detach subscribers whose current send has been blocked for longer than the send timeout
+     */
+    @Scheduled(fixedDelayString = "${app.stream.send-timeout:PT10S}")
+    public void expireStalledSends() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.expireIfStalled(now));
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void publishChange(TodoChangedEvent.Type type, long todoId, TodoView todo, long occurredAtMillis) {
+        statisticsStale.set(true);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("type", type.name())
+                .put("todoId", todoId)
+                .put("occurredAt", occurredAtMillis);
+        payload.set("todo", objectMapper.valueToTree(todo));
+        publish(type.name().toLowerCase(Locale.ROOT), payload, occurredAtMillis, false);
+    }
+
+    private void publish(String name, Object payload, long occurredAtMillis, boolean statisticsOnly) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize {} stream event", name, e);
+            return;
+        }
+        Message message = new Message(sequence.incrementAndGet(), name, data, occurredAtMillis);
+        for (Subscriber subscriber : subscribers) {
+            if (!statisticsOnly || subscriber.statistics) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    /**
+     * Turns the follower's pages into stream events; the delta feed does not say how a todo changed
+     */
+    private final class FollowerTarget implements TodoChangeFollower.Target {
+
+        @Override
+        public void upsert(TodoView todo) {
+            // The insert trigger stamps both timestamps from one clock reading; any later write moves updated_at
+            TodoChangedEvent.Type type = todo.createdAt() != null && todo.createdAt().equals(todo.updatedAt())
+                    ? TodoChangedEvent.Type.CREATED : TodoChangedEvent.Type.UPDATED;
+            long occurredAtMillis = todo.updatedAt() != null
+                    ? todo.updatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : System.currentTimeMillis();
+            published.applyIfNewer(todo.id(), todo.version(),
+                    () -> publishChange(type, todo.id(), todo, occurredAtMillis));
+        }
+
+        @Override
+        public void delete(long id) {
+            published.deleteOnce(id,
+                    () -> publishChange(TodoChangedEvent.Type.DELETED, id, null, System.currentTimeMillis()));
+        }
+
+        @Override
+        public void reload() {
+            statisticsStale.set(true);
+            publish(RESYNC_EVENT, objectMapper.createObjectNode(), System.currentTimeMillis(), false);
+        }
+    }
+
+    private static final class Message {
+        private final long id;
+        private final String name;
+        private final String data;
+        private final long occurredAtMillis;
+
+        private Message(long id, String name, String data, long occurredAtMillis) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.occurredAtMillis = occurredAtMillis;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final boolean statistics;
+        private final ArrayBlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        // At most one sender drains a subscriber at a time, which keeps its messages in order
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, or 0 while no send is in progress
+        private volatile long sendStartedNanos;
+        private volatile boolean stalled;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, boolean statistics) {
+            this.emitter = emitter;
+            this.statistics = statistics;
+        }
+
+        /**
+         * Enqueue without blocking, evicting the oldest messages while the buffer is full
+         */
+        private void offer(Message message) {
+            if (closed) {
+                return;
+            }
+            while (!queue.offer(message)) {
+                if (queue.poll() != null) {
+                    droppedCounter.increment();
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while (!closed && (message = queue.poll()) != null) {
+                    send(message);
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (stalled) {
+                // The blocked write has returned; complete here, as complete() waits for the emitter's lock
+                emitter.complete();
+                return;
+            }
+            // A message offered after the last poll but before the flag was cleared would otherwise wait
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void expireIfStalled(long nowNanos) {
+            long started = sendStartedNanos;
+            if (started != 0 && nowNanos - started > sendTimeoutNanos && !closed) {
+                stalled = true;
+                close();
+                stalledCounter.increment();
+                logger.debug("Disconnecting a stream subscriber whose send blocked for over {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            }
+        }
+
+        private void send(Message message) {
+            sendStartedNanos = System.nanoTime();
+            try {
+                if (message == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    return;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(message.id))
+                        .name(message.name)
+                        .data(message.data, MediaType.APPLICATION_JSON));
+                lagTimer.record(System.currentTimeMillis() - message.occurredAtMillis, TimeUnit.MILLISECONDS);
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.todoapp.event;
+
+import com.todoapp.entity.Todo;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Published by the service layer after a todo write has been persisted.
+ * Listeners keep derived in-process state (search indexes, live feeds) in sync.
+ */
+public class TodoChangedEvent {
+
+    /**
+     * Kind of change applied to the todo
+     */
+    public enum Type {
+        CREATED, UPDATED, COMPLETED, REOPENED, DELETED
+    }
+
+    private final Type type;
+    private final long todoId;
+    private final Todo todo;
+    private final long occurredAtMillis;
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoChangedEvent(Type type, long todoId, Todo todo) {
+        this.type = type;
+        this.todoId = todoId;
+        this.todo = todo;
+        this.occurredAtMillis = System.currentTimeMillis();
+    }
+
+    public static TodoChangedEvent of(Type type, Todo todo) {
+        return new TodoChangedEvent(type, todo.getId(), todo);
+    }
+
+    public static TodoChangedEvent deleted(long todoId) {
+        return new TodoChangedEvent(Type.DELETED, todoId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTodoId() {
+        return todoId;
+    }
+
+    /**
+     * The todo state after the change, or null for deletions
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public Todo getTodo() {
+        return todo;
+    }
+
+    public long getOccurredAtMillis() {
+        return occurredAtMillis;
+    }
+}
@@ -0,0 +1,41 @@
+package com.todoapp.jobs;
+
+import com.todoapp.metrics.TodoMetrics;
+import com.todoapp.repository.TodoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Periodically corrects drift in the trigger-maintained todo_counters table
+ * (e.g. after manual data fixes or restores that bypassed the triggers)
+ */
+@Component
+public class TodoCounterReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoCounterReconciliationJob.class);
+
+    private final TodoRepository todoRepository;
+    private final TodoMetrics todoMetrics;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoCounterReconciliationJob(TodoRepository todoRepository, TodoMetrics todoMetrics) {
+        this.todoRepository = todoRepository;
+        this.todoMetrics = todoMetrics;
+    }
+
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval:PT10M}",
+               fixedDelayString = "${app.statistics.reconcile-interval:PT10M}")
+    public void reconcile() {
+        long drift = todoRepository.reconcileCounters();
+        if (drift > 0) {
+            logger.warn("Corrected todo counter drift of {}", drift);
+            todoMetrics.recordCounterDrift(drift);
+        }
+    }
+}
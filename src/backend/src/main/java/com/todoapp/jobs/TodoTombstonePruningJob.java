@@ -0,0 +1,36 @@
+package com.todoapp.jobs;
+
+import com.todoapp.service.TodoSyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Periodically drops delta-sync tombstones older than the retention horizon so todo_tombstones stays small
+ */
+@Component
+public class TodoTombstonePruningJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoTombstonePruningJob.class);
+
+    private final TodoSyncService todoSyncService;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoTombstonePruningJob(TodoSyncService todoSyncService) {
+        this.todoSyncService = todoSyncService;
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.prune-interval:PT1H}",
+               fixedDelayString = "${app.sync.prune-interval:PT1H}")
+    public void prune() {
+        int pruned = todoSyncService.pruneTombstones();
+        if (pruned > 0) {
+            logger.info("Pruned {} todo tombstones", pruned);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.todoapp.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Records the heap bytes allocated by the request thread for every GET on the todo API, tagged by route,
+ * so the allocation cost of the read path can be compared between releases. Covers query, mapping and
+ * JSON serialization; work handed to other threads (streams, SSE) is not included.
+ */
+@Component
+public class RequestAllocationFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/api/todos";
+    private static final String UNMATCHED_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threads;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public RequestAllocationFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean allocationBean
+                && allocationBean.isThreadAllocatedMemorySupported()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+            this.threads = allocationBean;
+        } else {
+            this.threads = null;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // The servlet path excludes server.servlet.context-path, which the dev and prod profiles set
+        return threads == null || !"GET".equals(request.getMethod())
+                || !request.getServletPath().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summaries.computeIfAbsent(route != null ? route.toString() : UNMATCHED_ROUTE, this::register)
+                    .record(allocated);
+        }
+    }
+
+    private DistributionSummary register(String route) {
+        return DistributionSummary.builder("http_request_allocated_bytes")
+                .description("Heap bytes allocated by the request thread while serving a todo API read")
+                .baseUnit("bytes")
+                .tag("uri", route)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -1,12 +1,15 @@
 package com.todoapp.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.Gauge;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class TodoMetrics {
@@ -17,13 +20,29 @@ public class TodoMetrics {
     private final Counter todosUpdatedCounter;
     private final Counter userSessionsCounter;
     private final Counter featureUsageCounter;
+    private final Counter counterDriftCounter;
+    private final Counter batchRowsCounter;
+    private final Counter importedRowsCounter;
+    private final Counter rejectedRowsCounter;
+    private final Counter exportedRowsCounter;
+    private final Counter conditionalWritesAppliedCounter;
+    private final Counter conditionalWritesConflictCounter;
     
     private final Timer todoCreationTimer;
     private final Timer todoCompletionTimer;
     private final Timer apiResponseTimer;
+    private final Timer batchInsertTimer;
+    private final Timer importTimer;
+    private final Timer exportTimer;
+    private final Timer lookupBatchWaitTimer;
+    private final Timer groupCommitTimer;
+    private final DistributionSummary groupCommitSizeSummary;
+    private final DistributionSummary lookupBatchSizeSummary;
     
     private final AtomicInteger activeTodosGauge;
     private final AtomicInteger activeUsersGauge;
+    private final AtomicLong batchRowsPerSecondGauge;
+    private final AtomicLong importRowsPerSecondGauge;
     
     public TodoMetrics(MeterRegistry meterRegistry) {
         // Counters for business metrics
@@ -53,6 +72,38 @@ public class TodoMetrics {
                 .tag("feature", "unknown")
                 .register(meterRegistry);
         
+        this.counterDriftCounter = Counter.builder("todo_counter_drift_total")
+                .description("Absolute drift corrected in the todo_counters summary table")
+                .register(meterRegistry);
+        
+        this.batchRowsCounter = Counter.builder("todo_batch_rows_inserted_total")
+                .description("Total number of todos inserted through bulk create")
+                .register(meterRegistry);
+        
+        this.importedRowsCounter = Counter.builder("todo_import_rows_total")
+                .description("Rows processed by file imports")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+                
+        this.rejectedRowsCounter = Counter.builder("todo_import_rows_total")
+                .description("Rows processed by file imports")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+                
+        this.exportedRowsCounter = Counter.builder("todo_export_rows_total")
+                .description("Rows written by streaming exports")
+                .register(meterRegistry);
+        
+        this.conditionalWritesAppliedCounter = Counter.builder("todo_conditional_writes_total")
+                .description("Writes conditional on If-Match, by outcome (conflict = stale version)")
+                .tag("outcome", "applied")
+                .register(meterRegistry);
+                
+        this.conditionalWritesConflictCounter = Counter.builder("todo_conditional_writes_total")
+                .description("Writes conditional on If-Match, by outcome (conflict = stale version)")
+                .tag("outcome", "conflict")
+                .register(meterRegistry);
+        
         // Timers for performance metrics
         this.todoCreationTimer = Timer.builder("todo_creation_duration_seconds")
                 .description("Time taken to create a todo")
@@ -65,6 +116,38 @@ public class TodoMetrics {
         this.apiResponseTimer = Timer.builder("http_request_duration_seconds")
                 .description("HTTP request duration")
                 .register(meterRegistry);
+                
+        this.batchInsertTimer = Timer.builder("todo_batch_insert_duration_seconds")
+                .description("Time taken to insert one bulk create request")
+                .register(meterRegistry);
+                
+        this.importTimer = Timer.builder("todo_import_duration_seconds")
+                .description("Time taken to run one file import")
+                .register(meterRegistry);
+                
+        this.exportTimer = Timer.builder("todo_export_duration_seconds")
+                .description("Time taken to stream one export")
+                .register(meterRegistry);
+                
+        this.lookupBatchWaitTimer = Timer.builder("todo_lookup_batch_wait_seconds")
+                .description("Latency added by batching: how long the oldest lookup of a batch waited for dispatch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+                
+        this.lookupBatchSizeSummary = DistributionSummary.builder("todo_lookup_batch_size")
+                .description("Todo-by-id lookups merged into one query")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+                
+        this.groupCommitTimer = Timer.builder("todo_group_commit_duration_seconds")
+                .description("Time taken to insert and commit one group of concurrent creates")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+                
+        this.groupCommitSizeSummary = DistributionSummary.builder("todo_group_commit_size")
+                .description("Concurrent creates committed in one transaction")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
         
         // Gauges for current state
         this.activeTodosGauge = new AtomicInteger(0);
@@ -76,6 +159,16 @@ public class TodoMetrics {
         Gauge.builder("todo_active_users_total", activeUsersGauge, AtomicInteger::get)
                 .description("Current number of active users")
                 .register(meterRegistry);
+                
+        this.batchRowsPerSecondGauge = new AtomicLong(0);
+        Gauge.builder("todo_batch_insert_rows_per_second", batchRowsPerSecondGauge, AtomicLong::get)
+                .description("Insert throughput of the most recent bulk create")
+                .register(meterRegistry);
+                
+        this.importRowsPerSecondGauge = new AtomicLong(0);
+        Gauge.builder("todo_import_rows_per_second", importRowsPerSecondGauge, AtomicLong::get)
+                .description("Throughput of the running or most recent file import")
+                .register(meterRegistry);
     }
     
     // Business metric methods
@@ -107,6 +200,54 @@ public class TodoMetrics {
         featureUsageCounter.increment();
     }
     
+    public void recordCounterDrift(long drift) {
+        counterDriftCounter.increment(drift);
+    }
+    
+    public void recordBatchInsert(int rows, long durationNanos) {
+        batchRowsCounter.increment(rows);
+        batchInsertTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (durationNanos > 0) {
+            batchRowsPerSecondGauge.set(rows * TimeUnit.SECONDS.toNanos(1) / durationNanos);
+        }
+    }
+    
+    public void recordImportedRows(int rows, long rowsPerSecond) {
+        importedRowsCounter.increment(rows);
+        importRowsPerSecondGauge.set(rowsPerSecond);
+    }
+    
+    public void incrementRejectedRows() {
+        rejectedRowsCounter.increment();
+    }
+    
+    public void recordImport(long durationNanos) {
+        importTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordExport(long rows, long durationNanos) {
+        exportedRowsCounter.increment(rows);
+        exportTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordLookupBatch(int size, long waitNanos) {
+        lookupBatchSizeSummary.record(size);
+        lookupBatchWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordGroupCommit(int size, long durationNanos) {
+        groupCommitSizeSummary.record(size);
+        groupCommitTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void incrementConditionalWritesApplied() {
+        conditionalWritesAppliedCounter.increment();
+    }
+    
+    public void incrementConditionalWriteConflicts() {
+        conditionalWritesConflictCounter.increment();
+    }
+    
     // Performance metric methods
     public Timer.Sample startTodoCreationTimer() {
         return Timer.start();
@@ -0,0 +1,95 @@
+package com.todoapp.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque delta-sync watermark: the database time up to which a client has seen every change.
+ * While a large delta is returned page by page the token also carries the (updated_at, id) position of the
+ * last row sent and the watermark the traversal ends at, both fixed by its first page.
+ * Encoded as URL-safe Base64 like {@link TodoCursor}.
+ */
+public final class ChangeToken {
+
+    private static final String SEPARATOR = "|";
+
+    // Null while the initial snapshot is being paged
+    private final LocalDateTime watermark;
+    private final LocalDateTime target;
+    private final LocalDateTime afterUpdatedAt;
+    private final Long afterId;
+
+    public ChangeToken(LocalDateTime watermark) {
+        this(watermark, null, null, null);
+    }
+
+    private ChangeToken(LocalDateTime watermark, LocalDateTime target, LocalDateTime afterUpdatedAt, Long afterId) {
+        this.watermark = watermark;
+        this.target = target;
+        this.afterUpdatedAt = afterUpdatedAt;
+        this.afterId = afterId;
+    }
+
+    /**
+     * Token for the page after the row at (updatedAt, id) of a traversal from {@code watermark} to {@code target}
+     */
+    public static ChangeToken page(LocalDateTime watermark, LocalDateTime target, LocalDateTime updatedAt, long id) {
+        return new ChangeToken(watermark, target, updatedAt, id);
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public LocalDateTime getTarget() {
+        return target;
+    }
+
+    public LocalDateTime getAfterUpdatedAt() {
+        return afterUpdatedAt;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * Whether this token continues a traversal rather than starting one
+     */
+    public boolean isPage() {
+        return afterId != null;
+    }
+
+    /**
+     * Encode the token handed to clients
+     */
+    public String encode() {
+        String raw = isPage()
+                ? String.join(SEPARATOR, watermark != null ? watermark.toString() : "", target.toString(),
+                        afterUpdatedAt.toString(), afterId.toString())
+                : watermark.toString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     */
+    public static ChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.contains(SEPARATOR)) {
+                return new ChangeToken(LocalDateTime.parse(raw));
+            }
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid change token: " + token);
+            }
+            return new ChangeToken(parts[0].isEmpty() ? null : LocalDateTime.parse(parts[0]),
+                    LocalDateTime.parse(parts[1]), LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid change token: " + token, e);
+        }
+    }
+}
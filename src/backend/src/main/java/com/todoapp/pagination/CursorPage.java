@@ -0,0 +1,33 @@
+package com.todoapp.pagination;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Deliberately carries no total count.
+ */
+public final class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = List.copyOf(content);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+}
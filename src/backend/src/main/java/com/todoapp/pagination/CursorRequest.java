@@ -0,0 +1,51 @@
+package com.todoapp.pagination;
+
+/**
+ * Keyset page request: sort order, page size and the cursor of the previous page (if any)
+ */
+public final class CursorRequest {
+
+    private final TodoSortField sortField;
+    private final boolean descending;
+    private final TodoCursor after;
+    private final int size;
+
+    private CursorRequest(TodoSortField sortField, boolean descending, TodoCursor after, int size) {
+        this.sortField = sortField;
+        this.descending = descending;
+        this.after = after;
+        this.size = size;
+    }
+
+    /**
+     * Build a request from raw request parameters. An empty token requests the first page.
+     */
+    public static CursorRequest of(String sortBy, String sortDir, String token, int size) {
+        TodoSortField sortField = TodoSortField.fromProperty(sortBy);
+        boolean descending = !"asc".equalsIgnoreCase(sortDir);
+        TodoCursor after = null;
+        if (token != null && !token.isBlank()) {
+            after = TodoCursor.decode(token);
+            if (!after.getField().equals(sortField.getProperty()) || after.isDescending() != descending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+        }
+        return new CursorRequest(sortField, descending, after, size);
+    }
+
+    public TodoSortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public TodoCursor getAfter() {
+        return after;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
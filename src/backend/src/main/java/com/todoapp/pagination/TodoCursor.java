@@ -0,0 +1,67 @@
+package com.todoapp.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor holding the last sort key and id of a page.
+ * Encoded as URL-safe Base64 so clients treat it as an opaque token.
+ */
+public final class TodoCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String field;
+    private final boolean descending;
+    private final String sortKey;
+    private final long id;
+
+    public TodoCursor(String field, boolean descending, String sortKey, long id) {
+        this.field = field;
+        this.descending = descending;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Encode the cursor into the token handed to clients
+     */
+    public String encode() {
+        String raw = field + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR
+                + (sortKey != null ? sortKey : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     */
+    public static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String sortKey = parts[2].isEmpty() ? null : parts[2];
+            return new TodoCursor(parts[0], "desc".equals(parts[1]), sortKey, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.todoapp.pagination;
+
+import com.todoapp.repository.TodoView;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sort fields accepted by the list endpoints.
+ * Only columns backed by a (sort_key, id) index are exposed so a sort never degrades into a full sort.
+ */
+public enum TodoSortField {
+
+    ID("id", "id"),
+    CREATED_AT("createdAt", "created_at");
+
+    private final String property;
+    private final String column;
+
+    TodoSortField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Resolve a request parameter to a sort field, rejecting anything that is not indexed
+     */
+    public static TodoSortField fromProperty(String property) {
+        for (TodoSortField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + property);
+    }
+
+    /**
+     * Extract the sort key of a todo in the string form stored in cursors
+     */
+    public String sortKeyOf(TodoView todo) {
+        return this == CREATED_AT ? todo.createdAt().toString() : null;
+    }
+
+    /**
+     * Parse a sort key previously produced by {@link #sortKeyOf(TodoView)}
+     */
+    public Object parseSortKey(String sortKey) {
+        return this == CREATED_AT ? LocalDateTime.parse(sortKey) : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.todoapp.repository;
+
+/**
+ * A full-text search hit together with its ts_rank score
+ */
+public final class RankedTodo {
+
+    private final TodoView todo;
+    private final float rank;
+
+    public RankedTodo(TodoView todo, float rank) {
+        this.todo = todo;
+        this.rank = rank;
+    }
+
+    public TodoView getTodo() {
+        return todo;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,54 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable set of column changes applied by a bulk update; null fields are left untouched
+ */
+public final class TodoBulkUpdate {
+
+    private final Boolean completed;
+    private final LocalDateTime dueDate;
+    private final Todo.Priority priority;
+
+    private TodoBulkUpdate(Boolean completed, LocalDateTime dueDate, Todo.Priority priority) {
+        this.completed = completed;
+        this.dueDate = dueDate;
+        this.priority = priority;
+    }
+
+    /**
+     * Set the completion status
+     */
+    public static TodoBulkUpdate completed(boolean completed) {
+        return new TodoBulkUpdate(completed, null, null);
+    }
+
+    /**
+     * Move the due date
+     */
+    public static TodoBulkUpdate dueDate(LocalDateTime dueDate) {
+        return new TodoBulkUpdate(null, dueDate, null);
+    }
+
+    /**
+     * Change the priority
+     */
+    public static TodoBulkUpdate priority(Todo.Priority priority) {
+        return new TodoBulkUpdate(null, null, priority);
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+}
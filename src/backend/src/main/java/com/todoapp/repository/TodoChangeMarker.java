@@ -0,0 +1,14 @@
+package com.todoapp.repository;
+
+/**
+ * Table-level change marker for the todos collection, maintained by triggers in the writing transaction.
+ * Every committed insert, update or delete raises the count, so it validates cached collection responses
+ * without reading the rows and without relying on timestamps.
+ */
+public interface TodoChangeMarker {
+
+    /**
+     * Rows inserted, updated or deleted so far; 0 when nothing was ever written
+     */
+    long getChangeCount();
+}
@@ -0,0 +1,70 @@
+package com.todoapp.repository;
+
+import org.hibernate.type.BasicTypeReference;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Todo properties that can be requested individually through {@code fields=}, with the column each
+ * one is read from and the type it is read as. Declared in the JSON order of {@link TodoView}.
+ */
+public enum TodoField {
+
+    ID("id", "id", StandardBasicTypes.LONG),
+    TITLE("title", "title", StandardBasicTypes.STRING),
+    DESCRIPTION("description", "description", StandardBasicTypes.STRING),
+    COMPLETED("completed", "completed", StandardBasicTypes.BOOLEAN),
+    CREATED_AT("createdAt", "created_at", StandardBasicTypes.LOCAL_DATE_TIME),
+    UPDATED_AT("updatedAt", "updated_at", StandardBasicTypes.LOCAL_DATE_TIME),
+    DUE_DATE("dueDate", "due_date", StandardBasicTypes.LOCAL_DATE_TIME),
+    PRIORITY("priority", "priority", StandardBasicTypes.STRING),
+    VERSION("version", "version", StandardBasicTypes.LONG);
+
+    private final String property;
+    private final String column;
+    private final BasicTypeReference<?> type;
+
+    TodoField(String property, String column, BasicTypeReference<?> type) {
+        this.property = property;
+        this.column = column;
+        this.type = type;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public BasicTypeReference<?> getType() {
+        return type;
+    }
+
+    /**
+     * Parse a comma-separated list of property names. The id is always included because clients
+     * key rows by it and cursors are built from it.
+     */
+    public static Set<TodoField> parse(String fields) {
+        Set<TodoField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (!property.isEmpty()) {
+                parsed.add(fromProperty(property));
+            }
+        }
+        return parsed;
+    }
+
+    public static TodoField fromProperty(String property) {
+        for (TodoField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field: " + property);
+    }
+}
@@ -0,0 +1,117 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable set of predicates behind the list endpoints
+ */
+public final class TodoFilter {
+
+    private static final TodoFilter ALL = new TodoFilter(null, Set.of(), null, null);
+
+    private final Boolean completed;
+    private final Set<Todo.Priority> priorities;
+    private final LocalDateTime dueFrom;
+    private final LocalDateTime dueBefore;
+
+    private TodoFilter(Boolean completed, Set<Todo.Priority> priorities, LocalDateTime dueFrom,
+                       LocalDateTime dueBefore) {
+        this.completed = completed;
+        this.priorities = Set.copyOf(priorities);
+        this.dueFrom = dueFrom;
+        this.dueBefore = dueBefore;
+    }
+
+    /**
+     * Match every todo
+     */
+    public static TodoFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Match todos by completion status
+     */
+    public static TodoFilter byStatus(boolean completed) {
+        return new TodoFilter(completed, Set.of(), null, null);
+    }
+
+    /**
+     * Match todos by priority
+     */
+    public static TodoFilter byPriority(Todo.Priority priority) {
+        return new TodoFilter(null, Set.of(priority), null, null);
+    }
+
+    /**
+     * Match incomplete todos due before the given instant
+     */
+    public static TodoFilter overdue(LocalDateTime now) {
+        return new TodoFilter(false, Set.of(), null, now);
+    }
+
+    /**
+     * Match incomplete todos due in [from, before)
+     */
+    public static TodoFilter dueBetween(LocalDateTime from, LocalDateTime before) {
+        return new TodoFilter(false, Set.of(), from, before);
+    }
+
+    /**
+     * Match todos by any combination of predicates; null or empty arguments do not restrict
+     */
+    public static TodoFilter of(Boolean completed, Set<Todo.Priority> priorities, LocalDateTime dueFrom,
+                                LocalDateTime dueBefore) {
+        return new TodoFilter(completed, priorities != null ? priorities : Set.of(), dueFrom, dueBefore);
+    }
+
+    /**
+     * Match incomplete todos due on the calendar day of {@code now}
+     */
+    public static TodoFilter dueToday(LocalDateTime now) {
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+        return dueBetween(startOfDay, startOfDay.plusDays(1));
+    }
+
+    /**
+     * Match incomplete todos due within the seven days starting on the day of {@code now}
+     */
+    public static TodoFilter dueThisWeek(LocalDateTime now) {
+        LocalDateTime startOfWeek = now.toLocalDate().atStartOfDay();
+        return dueBetween(startOfWeek, startOfWeek.plusDays(7));
+    }
+
+    /**
+     * Match incomplete HIGH and URGENT todos
+     */
+    public static TodoFilter highPriority() {
+        return new TodoFilter(false, EnumSet.of(Todo.Priority.HIGH, Todo.Priority.URGENT), null, null);
+    }
+
+    /**
+     * Whether this filter matches every todo
+     */
+    public boolean isUnrestricted() {
+        return completed == null && priorities.isEmpty() && dueFrom == null && dueBefore == null;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public Set<Todo.Priority> getPriorities() {
+        return priorities;
+    }
+
+    public LocalDateTime getDueFrom() {
+        return dueFrom;
+    }
+
+    public LocalDateTime getDueBefore() {
+        return dueBefore;
+    }
+}
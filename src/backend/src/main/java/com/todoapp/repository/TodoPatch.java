@@ -0,0 +1,71 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable set of column changes for a single todo. Only the columns named here are written,
+ * and a null value clears a nullable column.
+ */
+public final class TodoPatch {
+
+    private static final TodoPatch EMPTY = new TodoPatch(Map.of());
+
+    private final Map<String, Object> columns;
+
+    private TodoPatch(Map<String, Object> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * A patch that changes nothing
+     */
+    public static TodoPatch empty() {
+        return EMPTY;
+    }
+
+    public TodoPatch withTitle(String title) {
+        return with("title", title);
+    }
+
+    public TodoPatch withDescription(String description) {
+        return with("description", description);
+    }
+
+    public TodoPatch withCompleted(boolean completed) {
+        return with("completed", completed);
+    }
+
+    public TodoPatch withPriority(Todo.Priority priority) {
+        return with("priority", priority.name());
+    }
+
+    public TodoPatch withDueDate(LocalDateTime dueDate) {
+        return with("due_date", dueDate);
+    }
+
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+
+    public boolean changes(String column) {
+        return columns.containsKey(column);
+    }
+
+    /**
+     * New values keyed by column name, in the order they were added
+     */
+    public Map<String, Object> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    private TodoPatch with(String column, Object value) {
+        Map<String, Object> next = new LinkedHashMap<>(columns);
+        next.put(column, value);
+        return new TodoPatch(next);
+    }
+}
@@ -4,62 +4,129 @@ import com.todoapp.entity.Todo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Todo entity operations
  */
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoRepositoryCustom {
 
     /**
-     * Find todos by completion status
+     * Constructor expression shared by the read-model queries; results are plain records, never entities
      */
-    List<Todo> findByCompleted(boolean completed);
+    String SELECT_VIEW = "SELECT new com.todoapp.repository.TodoView(t.id, t.title, t.description, t.completed, "
+            + "t.createdAt, t.updatedAt, t.dueDate, t.priority, t.version) FROM Todo t";
 
     /**
-     * Find todos by completion status with pagination
+     * Stream every todo through a server-side cursor. The driver only fetches
+     * 500 rows per round trip, so this must be consumed inside a transaction.
      */
-    Page<Todo> findByCompleted(boolean completed, Pageable pageable);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t ORDER BY t.id")
+    Stream<Todo> streamAll();
 
     /**
-     * Find todos by priority
+     * Read every todo as a read model
      */
-    List<Todo> findByPriority(Todo.Priority priority);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW)
+    List<TodoView> findAllViews();
 
     /**
-     * Find todos by title containing the given text (case-insensitive)
+     * Read one page of todos as read models
      */
-    List<Todo> findByTitleContainingIgnoreCase(String title);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(t) FROM Todo t")
+    Page<TodoView> findAllViews(Pageable pageable);
 
     /**
-     * Find todos by description containing the given text (case-insensitive)
+     * Read one todo as a read model
      */
-    List<Todo> findByDescriptionContainingIgnoreCase(String description);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE t.id = :id")
+    Optional<TodoView> findViewById(@Param("id") Long id);
+
+    /**
+     * Find todos by completion status
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE t.completed = :completed")
+    List<TodoView> findByCompleted(@Param("completed") boolean completed);
+
+    /**
+     * Find todos by completion status with pagination
+     */
+    Page<Todo> findByCompleted(boolean completed, Pageable pageable);
+
+    /**
+     * Find todos by priority
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE t.priority = :priority")
+    List<TodoView> findByPriority(@Param("priority") Todo.Priority priority);
 
     /**
      * Find overdue todos (due date is in the past and not completed)
      */
-    @Query("SELECT t FROM Todo t WHERE t.dueDate < :now AND t.completed = false")
-    List<Todo> findOverdueTodos(@Param("now") LocalDateTime now);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE t.dueDate < :now AND t.completed = false")
+    List<TodoView> findOverdueTodos(@Param("now") LocalDateTime now);
 
     /**
      * Find todos due today
      */
-    @Query("SELECT t FROM Todo t WHERE DATE(t.dueDate) = DATE(:today) AND t.completed = false")
-    List<Todo> findTodosDueToday(@Param("today") LocalDateTime today);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE DATE(t.dueDate) = DATE(:today) AND t.completed = false")
+    List<TodoView> findTodosDueToday(@Param("today") LocalDateTime today);
 
     /**
      * Find todos due this week
      */
-    @Query("SELECT t FROM Todo t WHERE t.dueDate BETWEEN :startOfWeek AND :endOfWeek AND t.completed = false")
-    List<Todo> findTodosDueThisWeek(@Param("startOfWeek") LocalDateTime startOfWeek, 
-                                   @Param("endOfWeek") LocalDateTime endOfWeek);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE t.dueDate BETWEEN :startOfWeek AND :endOfWeek AND t.completed = false")
+    List<TodoView> findTodosDueThisWeek(@Param("startOfWeek") LocalDateTime startOfWeek,
+                                       @Param("endOfWeek") LocalDateTime endOfWeek);
 
     /**
      * Count todos by completion status
@@ -71,6 +138,25 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
      */
     long countByPriority(Todo.Priority priority);
 
+    /**
+     * Read statistics from the trigger-maintained todo_counters slots. Only the time-dependent
+     * overdue figure touches todos, through the partial index on open todos' due dates.
+     */
+    @Query(value = "SELECT COALESCE(SUM(todo_count), 0) AS totalTodos, "
+            + "COALESCE(SUM(todo_count) FILTER (WHERE completed = TRUE), 0) AS completedTodos, "
+            + "COALESCE(SUM(todo_count) FILTER (WHERE completed = FALSE), 0) AS incompleteTodos, "
+            + "(SELECT COUNT(*) FROM todos WHERE completed = FALSE AND due_date < :now) AS overdueTodos, "
+            + "COALESCE(SUM(todo_count) FILTER (WHERE priority IN ('HIGH', 'URGENT')), 0) AS highPriorityTodos "
+            + "FROM todo_counters", nativeQuery = true)
+    TodoStatisticsView computeStatistics(@Param("now") LocalDateTime now);
+
+    /**
+     * Correct any drift between todo_counters and the todos table, returning the absolute drift found
+     */
+    @Transactional
+    @Query(value = "SELECT reconcile_todo_counters()", nativeQuery = true)
+    long reconcileCounters();
+
     /**
      * Find completed todos created in the last N days
      */
@@ -80,12 +166,60 @@ public interface TodoRepository extends JpaRepository<Todo, Long> {
     /**
      * Find high priority incomplete todos
      */
-    @Query("SELECT t FROM Todo t WHERE t.priority IN ('HIGH', 'URGENT') AND t.completed = false ORDER BY t.dueDate ASC")
-    List<Todo> findHighPriorityIncompleteTodos();
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query(SELECT_VIEW + " WHERE t.priority IN ('HIGH', 'URGENT') AND t.completed = false ORDER BY t.dueDate ASC")
+    List<TodoView> findHighPriorityIncompleteTodos();
+
+    /**
+     * Read only the version and update time of one todo, for conditional GETs
+     */
+    @Query("SELECT t.version AS version, t.updatedAt AS updatedAt FROM Todo t WHERE t.id = :id")
+    Optional<TodoVersionView> findVersionById(@Param("id") Long id);
+
+    /**
+     * Read the collection change marker by summing the striped change counter, without touching todo rows
+     */
+    @Query(value = "SELECT COALESCE(SUM(change_count), 0) AS changeCount FROM todo_changes", nativeQuery = true)
+    TodoChangeMarker findChangeMarker();
+
+    /**
+     * Current database time in UTC, the clock that stamps updated_at and tombstones
+     */
+    @Query(value = "SELECT clock_timestamp() AT TIME ZONE 'UTC'", nativeQuery = true)
+    LocalDateTime currentDatabaseTime();
+
+    /**
+     * Start time of the current transaction in UTC: the created_at/updated_at the trigger stamps on rows
+     * this transaction inserts
+     */
+    @Query(value = "SELECT now() AT TIME ZONE 'UTC'", nativeQuery = true)
+    LocalDateTime currentTransactionTime();
+
+    /**
+     * Ids of todos deleted after the watermark, from the todo_tombstones deletion log
+     */
+    @Query(value = "SELECT id FROM todo_tombstones WHERE deleted_at > :since ORDER BY deleted_at, id",
+            nativeQuery = true)
+    List<Long> findDeletedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Drop tombstones older than the retention, returning how many were removed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM todo_tombstones "
+            + "WHERE deleted_at < (now() AT TIME ZONE 'UTC') - make_interval(secs => :retentionSeconds)",
+            nativeQuery = true)
+    int pruneTombstones(@Param("retentionSeconds") long retentionSeconds);
 
     /**
-     * Delete completed todos older than specified date
+     * Delete a todo in one statement; the affected row count tells whether it existed
      */
-    @Query("DELETE FROM Todo t WHERE t.completed = true AND t.updatedAt < :olderThan")
-    void deleteOldCompletedTodos(@Param("olderThan") LocalDateTime olderThan);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id = :id")
+    int deleteTodoById(@Param("id") Long id);
 }
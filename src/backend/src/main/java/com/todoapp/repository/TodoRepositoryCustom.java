@@ -0,0 +1,110 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.pagination.TodoCursor;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand-written queries that cannot be expressed as derived or annotated queries
+ */
+public interface TodoRepositoryCustom {
+
+    /**
+     * Find up to {@code limit} todos matching the filter that sort after the request cursor.
+     * Uses a (sort_key, id) row comparison so every page is an index range scan, and never counts.
+     * Rows are read as scalars into read models, not entities.
+     */
+    List<TodoView> findSlice(TodoFilter filter, CursorRequest request, int limit);
+
+    /**
+     * Like {@link #findSlice} but selects only the given fields, returned as property maps in field order.
+     * {@code offset} rows are skipped for offset pagination when the request has no cursor.
+     */
+    List<Map<String, Object>> findFieldSlice(TodoFilter filter, Set<TodoField> fields, CursorRequest request,
+                                             long offset, int limit);
+
+    /**
+     * Read the todos with the given ids, in no particular order. The ids are bound as one array parameter,
+     * so every lookup shares a single statement and plan whatever its length.
+     */
+    List<TodoView> findViewsByIds(Collection<Long> ids);
+
+    /**
+     * Find up to {@code limit} todos written after {@code since} (every todo when null) in (updated_at, id)
+     * order, continuing after the given position when {@code afterId} is not null. Each page is a range scan
+     * of the (updated_at, id) index, read as scalars into read models.
+     */
+    List<TodoView> findChangedSlice(LocalDateTime since, LocalDateTime afterUpdatedAt, Long afterId, int limit);
+
+    /**
+     * Find up to {@code limit} full-text matches ordered by ts_rank, continuing after the given rank cursor.
+     * Matching goes through the GIN index on the stored search_vector column.
+     */
+    List<RankedTodo> searchSlice(String tsQuery, TodoCursor after, int limit);
+
+    /**
+     * Find up to {@code limit} todos whose title or description contains the term or resembles it
+     * with at least the given word similarity, best matches first. Both predicates are served by the
+     * pg_trgm GIN indexes. Must run inside a transaction because the threshold is set transaction-locally.
+     */
+    List<TodoView> fuzzySearch(String term, double similarityThreshold, int limit);
+
+    /**
+     * Insert todos with COPY FROM STDIN, bypassing per-row INSERT overhead.
+     * Ids are taken from todos_id_seq in pooled-lo blocks (like Hibernate does) and set on the passed todos;
+     * created_at/updated_at are stamped by the insert trigger.
+     * Must run inside a transaction.
+     */
+    void copyIn(List<Todo> todos);
+
+    /**
+     * Write the todos matching the filter to {@code out} as CSV with a header row, ordered by id,
+     * using COPY TO STDOUT so rows are never materialized as entities. Returns the number of rows written.
+     */
+    long copyCsv(TodoFilter filter, OutputStream out);
+
+    /**
+     * Like {@link #copyCsv} but writes one JSON object per line, built by PostgreSQL with the same
+     * property names as the REST representation
+     */
+    long copyNdjson(TodoFilter filter, OutputStream out);
+
+    /**
+     * Apply the update to at most {@code limit} todos (lowest ids first) that match the filter, are in
+     * {@code ids} when given, and are not already in the target state; returns the updated rows.
+     * One UPDATE ... RETURNING statement, so callers loop until fewer than {@code limit} rows come back.
+     * Must run inside a transaction.
+     */
+    List<Todo> updateSlice(Collection<Long> ids, TodoFilter filter, TodoBulkUpdate update, int limit);
+
+    /**
+     * Delete at most {@code limit} todos (lowest ids first) that match the filter and are in {@code ids}
+     * when given; returns the deleted ids. Must run inside a transaction.
+     */
+    List<Long> deleteSlice(Collection<Long> ids, TodoFilter filter, int limit);
+
+    /**
+     * Delete at most {@code limit} completed todos (lowest ids first) last written more than
+     * {@code daysToKeep} days ago by the database clock; returns the deleted ids. Must run inside a transaction.
+     */
+    List<Long> deleteCompletedBefore(int daysToKeep, int limit);
+
+    /**
+     * Write only the patched columns of one todo in a single UPDATE ... RETURNING statement and bump its version.
+     * With an expected version the version check is part of the same statement, which also tells a conflict
+     * apart from a missing row. A null expected version writes unconditionally; an empty patch just reads the todo.
+     */
+    TodoWriteResult patch(long id, TodoPatch patch, Long expectedVersion);
+
+    /**
+     * Delete one todo in a single statement if it still has the expected version
+     */
+    TodoWriteResult deleteIfVersion(long id, long expectedVersion);
+}
@@ -0,0 +1,540 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.pagination.TodoCursor;
+import com.todoapp.pagination.TodoSortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Native SQL implementation of {@link TodoRepositoryCustom}, picked up by Spring Data through the Impl suffix.
+ * Native SQL is used because JPQL cannot express PostgreSQL row-value comparisons.
+ */
+public class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+    // created_at/updated_at are left to the insert trigger
+    private static final String COPY_TODOS_SQL = "COPY todos (id, title, description, completed, priority, "
+            + "due_date) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String ISO_TIMESTAMP = "'YYYY-MM-DD\"T\"HH24:MI:SS.US'";
+
+    // ISO-8601 timestamps and true/false booleans, so an export can be fed back into the CSV import
+    private static final String CSV_EXPORT_COLUMNS = "t.id, t.title, t.description, "
+            + "t.completed::text AS completed, t.priority, "
+            + "to_char(t.due_date, " + ISO_TIMESTAMP + ") AS \"dueDate\", "
+            + "to_char(t.created_at, " + ISO_TIMESTAMP + ") AS \"createdAt\", "
+            + "to_char(t.updated_at, " + ISO_TIMESTAMP + ") AS \"updatedAt\"";
+
+    private static final String NDJSON_EXPORT_COLUMNS = "json_build_object('id', t.id, 'title', t.title, "
+            + "'description', t.description, 'completed', t.completed, 'createdAt', t.created_at, "
+            + "'updatedAt', t.updated_at, 'dueDate', t.due_date, 'priority', t.priority)::text";
+
+    // Every column of a TodoView, read as scalars in component order
+    private static final List<TodoField> VIEW_FIELDS = List.of(TodoField.values());
+    private static final String VIEW_COLUMNS = VIEW_FIELDS.stream()
+            .map(field -> "t." + field.getColumn())
+            .collect(Collectors.joining(", "));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoView> findSlice(TodoFilter filter, CursorRequest request, int limit) {
+        NativeQuery<Object[]> query = sliceQuery(filter, VIEW_FIELDS, request, 0, limit);
+        return toViews(query.getResultList());
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldSlice(TodoFilter filter, Set<TodoField> fields, CursorRequest request,
+                                                    long offset, int limit) {
+        List<TodoField> columns = List.copyOf(fields);
+        NativeQuery<Object> query = sliceQuery(filter, columns, request, offset, limit);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object result : query.getResultList()) {
+            // A single selected column comes back bare rather than as a one-element array
+            Object[] values = columns.size() == 1 ? new Object[] {result} : (Object[]) result;
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                row.put(columns.get(i).getProperty(), values[i]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<TodoView> findViewsByIds(Collection<Long> ids) {
+        NativeQuery<Object[]> query = scalarQuery("SELECT " + VIEW_COLUMNS + " FROM todos t "
+                + "WHERE t.id = ANY(CAST(:ids AS bigint[]))", VIEW_FIELDS);
+        query.setParameter("ids", idArray(ids));
+        return toViews(query.getResultList());
+    }
+
+    @Override
+    public List<TodoView> findChangedSlice(LocalDateTime since, LocalDateTime afterUpdatedAt, Long afterId,
+                                           int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(VIEW_COLUMNS).append(" FROM todos t WHERE 1 = 1");
+        if (since != null) {
+            sql.append(" AND t.updated_at > :since");
+            params.put("since", since);
+        }
+        if (afterId != null) {
+            sql.append(" AND (t.updated_at, t.id) > (:afterUpdatedAt, :afterId)");
+            params.put("afterUpdatedAt", afterUpdatedAt);
+            params.put("afterId", afterId);
+        }
+        sql.append(" ORDER BY t.updated_at, t.id LIMIT :limit");
+        params.put("limit", limit);
+
+        NativeQuery<Object[]> query = scalarQuery(sql.toString(), VIEW_FIELDS);
+        params.forEach(query::setParameter);
+        return toViews(query.getResultList());
+    }
+
+    /**
+     * Select the given columns of matching todos as typed scalars, so nothing enters the persistence context
+     * and no dirty-checking snapshots are kept. Skips {@code offset} rows when positive.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> NativeQuery<T> sliceQuery(TodoFilter filter, List<TodoField> columns, CursorRequest request,
+                                          long offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String selected = columns.equals(VIEW_FIELDS) ? VIEW_COLUMNS
+                : columns.stream().map(field -> "t." + field.getColumn()).collect(Collectors.joining(", "));
+        StringBuilder sql = new StringBuilder("SELECT ").append(selected).append(" FROM todos t WHERE 1 = 1");
+        appendFilter(sql, params, filter);
+        appendKeysetOrder(sql, params, request);
+        sql.append(" LIMIT :limit");
+        params.put("limit", limit);
+        if (offset > 0) {
+            sql.append(" OFFSET :offset");
+            params.put("offset", offset);
+        }
+
+        NativeQuery<T> query = scalarQuery(sql.toString(), columns);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    /**
+     * Create a native read query returning the given columns as typed scalars. Reads never need pending
+     * changes flushed first, so the flush mode is manual.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> NativeQuery<T> scalarQuery(String sql, List<TodoField> columns) {
+        NativeQuery<T> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        columns.forEach(field -> query.addScalar(field.getColumn(), field.getType()));
+        query.setHibernateFlushMode(FlushMode.MANUAL);
+        return query;
+    }
+
+    private static List<TodoView> toViews(List<Object[]> rows) {
+        List<TodoView> views = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            views.add(toView(row));
+        }
+        return views;
+    }
+
+    /**
+     * Build a read model from a row whose leading columns are {@link #VIEW_COLUMNS}
+     */
+    private static TodoView toView(Object[] row) {
+        return new TodoView((Long) row[0], (String) row[1], (String) row[2], (Boolean) row[3],
+                (LocalDateTime) row[4], (LocalDateTime) row[5], (LocalDateTime) row[6],
+                Todo.Priority.valueOf((String) row[7]), (Long) row[8]);
+    }
+
+    /**
+     * Continue after the request cursor, if any, and order by (sort_key, id)
+     */
+    private static void appendKeysetOrder(StringBuilder sql, Map<String, Object> params, CursorRequest request) {
+        TodoSortField sortField = request.getSortField();
+        String direction = request.isDescending() ? "DESC" : "ASC";
+        String comparator = request.isDescending() ? "<" : ">";
+        TodoCursor after = request.getAfter();
+        if (after != null) {
+            if (sortField == TodoSortField.ID) {
+                sql.append(" AND t.id ").append(comparator).append(" :afterId");
+            } else {
+                sql.append(" AND (t.").append(sortField.getColumn()).append(", t.id) ")
+                        .append(comparator).append(" (:afterKey, :afterId)");
+                params.put("afterKey", sortField.parseSortKey(after.getSortKey()));
+            }
+            params.put("afterId", after.getId());
+        }
+
+        if (sortField != TodoSortField.ID) {
+            sql.append(" ORDER BY t.").append(sortField.getColumn()).append(' ').append(direction)
+                    .append(", t.id ").append(direction);
+        } else {
+            sql.append(" ORDER BY t.id ").append(direction);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RankedTodo> searchSlice(String tsQuery, TodoCursor after, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + VIEW_COLUMNS + ", ts_rank(t.search_vector, q.query) AS rank "
+                + "FROM todos t, to_tsquery('english', :query) AS q(query) "
+                + "WHERE t.search_vector @@ q.query");
+        if (after != null) {
+            sql.append(" AND (ts_rank(t.search_vector, q.query), t.id) < (:afterRank, :afterId)");
+        }
+        sql.append(" ORDER BY rank DESC, t.id DESC LIMIT :limit");
+
+        NativeQuery<Object[]> query = scalarQuery(sql.toString(), VIEW_FIELDS);
+        query.addScalar("rank", StandardBasicTypes.FLOAT);
+        query.setParameter("query", tsQuery);
+        query.setParameter("limit", limit);
+        if (after != null) {
+            query.setParameter("afterRank", Float.parseFloat(after.getSortKey()));
+            query.setParameter("afterId", after.getId());
+        }
+
+        List<RankedTodo> hits = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            hits.add(new RankedTodo(toView(row), (Float) row[VIEW_FIELDS.size()]));
+        }
+        return hits;
+    }
+
+    @Override
+    public List<TodoView> fuzzySearch(String term, double similarityThreshold, int limit) {
+        // The <% operator reads its threshold from this setting; is_local = true scopes it to the transaction
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", Double.toString(similarityThreshold))
+                .getSingleResult();
+
+        NativeQuery<Object[]> query = scalarQuery("SELECT " + VIEW_COLUMNS + " FROM todos t "
+                + "WHERE t.title ILIKE :pattern ESCAPE '\\' OR t.description ILIKE :pattern ESCAPE '\\' "
+                + "OR :term <% t.title OR :term <% t.description "
+                + "ORDER BY GREATEST(word_similarity(:term, t.title), "
+                + "word_similarity(:term, COALESCE(t.description, ''))) DESC, t.id DESC "
+                + "LIMIT :limit", VIEW_FIELDS);
+        query.setParameter("pattern", "%" + escapeLike(term) + "%");
+        query.setParameter("term", term);
+        query.setParameter("limit", limit);
+        return toViews(query.getResultList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public TodoWriteResult patch(long id, TodoPatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            Todo todo = entityManager.find(Todo.class, id);
+            if (todo == null) {
+                return TodoWriteResult.notFound();
+            }
+            return expectedVersion == null || expectedVersion.equals(todo.getVersion())
+                    ? TodoWriteResult.applied(todo)
+                    : TodoWriteResult.versionMismatch();
+        }
+        Map<String, Object> params = new HashMap<>();
+        List<String> assignments = new ArrayList<>();
+        patch.getColumns().forEach((column, value) -> {
+            // Null is inlined because an untyped null parameter cannot be bound to a timestamp column
+            if (value == null) {
+                assignments.add(column + " = NULL");
+            } else {
+                assignments.add(column + " = :" + column);
+                params.put(column, value);
+            }
+        });
+        assignments.add("version = version + 1");
+        params.put("id", id);
+        String update = "UPDATE todos SET " + String.join(", ", assignments) + " WHERE id = :id";
+
+        if (expectedVersion == null) {
+            Query query = entityManager.createNativeQuery(update + " RETURNING *", Todo.class);
+            params.forEach(query::setParameter);
+            List<Todo> updated = query.getResultList();
+            return updated.isEmpty() ? TodoWriteResult.notFound() : TodoWriteResult.applied(updated.get(0));
+        }
+
+        // On a version miss the statement returns the unchanged row instead, so a conflict is told apart
+        // from a missing todo without a second round trip
+        params.put("expectedVersion", expectedVersion);
+        String sql = "WITH updated AS (" + update + " AND version = :expectedVersion RETURNING *) "
+                + "SELECT {c.*}, c.applied FROM ("
+                + "SELECT u.*, true AS applied FROM updated u "
+                + "UNION ALL SELECT t.*, false AS applied FROM todos t "
+                + "WHERE t.id = :id AND NOT EXISTS (SELECT 1 FROM updated)) c";
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addEntity("c", Todo.class)
+                .addScalar("applied", StandardBasicTypes.BOOLEAN);
+        params.forEach(query::setParameter);
+        List<Object[]> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return TodoWriteResult.notFound();
+        }
+        Object[] row = rows.get(0);
+        return (Boolean) row[1] ? TodoWriteResult.applied((Todo) row[0]) : TodoWriteResult.versionMismatch();
+    }
+
+    @Override
+    public TodoWriteResult deleteIfVersion(long id, long expectedVersion) {
+        // The scalar subquery reads the pre-delete snapshot, so it finds the row whenever it existed
+        String sql = "WITH deleted AS (DELETE FROM todos WHERE id = :id AND version = :expectedVersion RETURNING id) "
+                + "SELECT (SELECT count(*) FROM deleted), (SELECT version FROM todos WHERE id = :id)";
+        Object[] row = (Object[]) entityManager.createNativeQuery(sql)
+                .setParameter("id", id)
+                .setParameter("expectedVersion", expectedVersion)
+                .getSingleResult();
+        if (((Number) row[0]).longValue() > 0) {
+            return TodoWriteResult.deleted();
+        }
+        return row[1] == null ? TodoWriteResult.notFound() : TodoWriteResult.versionMismatch();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Todo> updateSlice(Collection<Long> ids, TodoFilter filter, TodoBulkUpdate update, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        List<String> assignments = new ArrayList<>();
+        List<String> changes = new ArrayList<>();
+        if (update.getCompleted() != null) {
+            assignments.add("completed = :newCompleted");
+            changes.add("t.completed IS DISTINCT FROM :newCompleted");
+            params.put("newCompleted", update.getCompleted());
+        }
+        if (update.getDueDate() != null) {
+            assignments.add("due_date = :newDueDate");
+            changes.add("t.due_date IS DISTINCT FROM :newDueDate");
+            params.put("newDueDate", update.getDueDate());
+        }
+        if (update.getPriority() != null) {
+            assignments.add("priority = :newPriority");
+            changes.add("t.priority IS DISTINCT FROM :newPriority");
+            params.put("newPriority", update.getPriority().name());
+        }
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+        assignments.add("version = version + 1");
+        // Rows already in the target state are skipped so a filter-driven loop always makes progress
+        String sql = "UPDATE todos SET " + String.join(", ", assignments)
+                + " WHERE id IN (" + sliceQuery(ids, filter, "(" + String.join(" OR ", changes) + ")", params)
+                + ") RETURNING *";
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql, Todo.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> deleteSlice(Collection<Long> ids, TodoFilter filter, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = "DELETE FROM todos WHERE id IN (" + sliceQuery(ids, filter, null, params) + ") RETURNING id";
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        List<Number> deleted = query.getResultList();
+        return deleted.stream().map(Number::longValue).toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> deleteCompletedBefore(int daysToKeep, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String sql = "DELETE FROM todos WHERE id IN (" + sliceQuery(null, TodoFilter.byStatus(true),
+                "t.updated_at < (now() AT TIME ZONE 'UTC') - make_interval(days => :daysToKeep)", params)
+                + ") RETURNING id";
+        params.put("daysToKeep", daysToKeep);
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        List<Number> deleted = query.getResultList();
+        return deleted.stream().map(Number::longValue).toList();
+    }
+
+    private static String sliceQuery(Collection<Long> ids, TodoFilter filter, String condition,
+                                     Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT t.id FROM todos t WHERE 1 = 1");
+        if (ids != null) {
+            // One array parameter, not a placeholder per id, so every slice size shares one statement
+            sql.append(" AND t.id = ANY(CAST(:ids AS bigint[]))");
+            params.put("ids", idArray(ids));
+        }
+        appendFilter(sql, params, filter);
+        if (condition != null) {
+            sql.append(" AND ").append(condition);
+        }
+        return sql.append(" ORDER BY t.id LIMIT :limit").toString();
+    }
+
+    /**
+     * Postgres array literal of the ids, bound as a single text parameter and cast to bigint[]
+     */
+    private static String idArray(Collection<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    @Override
+    public void copyIn(List<Todo> todos) {
+        if (todos.isEmpty()) {
+            return;
+        }
+        assignIds(todos);
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TODOS_SQL);
+            try {
+                StringBuilder row = new StringBuilder(256);
+                for (Todo todo : todos) {
+                    row.setLength(0);
+                    appendCsvRow(row, todo);
+                    byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                }
+                copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+    }
+
+    @Override
+    public long copyCsv(TodoFilter filter, OutputStream out) {
+        return copyOut("COPY (" + exportQuery(CSV_EXPORT_COLUMNS, filter) + ") TO STDOUT WITH (FORMAT csv, HEADER)",
+                out);
+    }
+
+    @Override
+    public long copyNdjson(TodoFilter filter, OutputStream out) {
+        // CSV mode with quote and delimiter set to control characters that JSON text never contains
+        // (json_build_object escapes them) emits each document verbatim, unlike text mode which
+        // would double every backslash
+        return copyOut("COPY (" + exportQuery(NDJSON_EXPORT_COLUMNS, filter) + ") TO STDOUT "
+                + "WITH (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')", out);
+    }
+
+    private long copyOut(String sql, OutputStream out) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * COPY does not accept bind parameters, so the filter is rendered as literals. Only booleans,
+     * enum names and formatted timestamps are ever inlined, never client-supplied text.
+     */
+    private static String exportQuery(String columns, TodoFilter filter) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM todos t WHERE 1 = 1");
+        if (filter.getCompleted() != null) {
+            sql.append(" AND t.completed = ").append(filter.getCompleted() ? "TRUE" : "FALSE");
+        }
+        if (!filter.getPriorities().isEmpty()) {
+            sql.append(" AND t.priority IN (").append(filter.getPriorities().stream()
+                    .map(priority -> "'" + priority.name() + "'")
+                    .sorted()
+                    .collect(Collectors.joining(", "))).append(')');
+        }
+        if (filter.getDueFrom() != null) {
+            sql.append(" AND t.due_date >= ").append(timestampLiteral(filter.getDueFrom()));
+        }
+        if (filter.getDueBefore() != null) {
+            sql.append(" AND t.due_date < ").append(timestampLiteral(filter.getDueBefore()));
+        }
+        return sql.append(" ORDER BY t.id").toString();
+    }
+
+    private static String timestampLiteral(LocalDateTime value) {
+        return "TIMESTAMP '" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) + "'";
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assignIds(List<Todo> todos) {
+        int blocks = (todos.size() + Todo.ID_ALLOCATION_SIZE - 1) / Todo.ID_ALLOCATION_SIZE;
+        List<Number> blockStarts = entityManager
+                .createNativeQuery("SELECT nextval('todos_id_seq') FROM generate_series(1, :blocks)")
+                .setParameter("blocks", blocks)
+                .getResultList();
+        for (int i = 0; i < todos.size(); i++) {
+            long blockStart = blockStarts.get(i / Todo.ID_ALLOCATION_SIZE).longValue();
+            todos.get(i).setId(blockStart + i % Todo.ID_ALLOCATION_SIZE);
+        }
+    }
+
+    private static void appendCsvRow(StringBuilder row, Todo todo) {
+        row.append(todo.getId()).append(',');
+        appendCsvValue(row, todo.getTitle());
+        row.append(',');
+        appendCsvValue(row, todo.getDescription());
+        row.append(',').append(todo.isCompleted()).append(',').append(todo.getPriority().name()).append(',');
+        appendCsvValue(row, todo.getDueDate());
+        row.append('\n');
+    }
+
+    private static void appendCsvValue(StringBuilder row, LocalDateTime value) {
+        if (value != null) {
+            row.append(value);
+        }
+    }
+
+    /**
+     * Quoted so that empty strings stay distinct from NULL (an unquoted empty field)
+     */
+    private static void appendCsvValue(StringBuilder row, String value) {
+        if (value != null) {
+            row.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static void appendFilter(StringBuilder sql, Map<String, Object> params, TodoFilter filter) {
+        if (filter.getCompleted() != null) {
+            sql.append(" AND t.completed = :completed");
+            params.put("completed", filter.getCompleted());
+        }
+        if (!filter.getPriorities().isEmpty()) {
+            sql.append(" AND t.priority IN (:priorities)");
+            params.put("priorities", filter.getPriorities().stream().map(Enum::name).toList());
+        }
+        if (filter.getDueFrom() != null) {
+            sql.append(" AND t.due_date >= :dueFrom");
+            params.put("dueFrom", filter.getDueFrom());
+        }
+        if (filter.getDueBefore() != null) {
+            sql.append(" AND t.due_date < :dueBefore");
+            params.put("dueBefore", filter.getDueBefore());
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,17 @@
+package com.todoapp.repository;
+
+/**
+ * Projection of the single-scan statistics aggregate
+ */
+public interface TodoStatisticsView {
+
+    long getTotalTodos();
+
+    long getCompletedTodos();
+
+    long getIncompleteTodos();
+
+    long getOverdueTodos();
+
+    long getHighPriorityTodos();
+}
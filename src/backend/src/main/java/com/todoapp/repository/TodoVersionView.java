@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the cache validators of one todo, read without loading the whole row
+ */
+public interface TodoVersionView {
+
+    long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,21 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable read model of a todo, built directly from query results. No managed entity or
+ * dirty-checking snapshot stands behind it; it serializes to the same JSON as {@link Todo}.
+ */
+public record TodoView(Long id, String title, String description, boolean completed, LocalDateTime createdAt,
+                       LocalDateTime updatedAt, LocalDateTime dueDate, Todo.Priority priority, Long version) {
+
+    /**
+     * Copy a todo that was just written, so write results can be answered in the read shape
+     */
+    public static TodoView of(Todo todo) {
+        return new TodoView(todo.getId(), todo.getTitle(), todo.getDescription(), todo.isCompleted(),
+                todo.getCreatedAt(), todo.getUpdatedAt(), todo.getDueDate(), todo.getPriority(), todo.getVersion());
+    }
+}
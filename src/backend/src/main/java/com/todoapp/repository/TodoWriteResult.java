@@ -0,0 +1,68 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+
+import java.util.Optional;
+
+/**
+ * Outcome of a single-statement write that may be conditional on the row version.
+ * The non-applied outcomes are shared instances, so a miss or a conflict allocates nothing.
+ */
+public final class TodoWriteResult {
+
+    public enum Status {
+        APPLIED, NOT_FOUND, VERSION_MISMATCH
+    }
+
+    private static final TodoWriteResult DELETED = new TodoWriteResult(Status.APPLIED, null);
+    private static final TodoWriteResult NOT_FOUND = new TodoWriteResult(Status.NOT_FOUND, null);
+    private static final TodoWriteResult VERSION_MISMATCH = new TodoWriteResult(Status.VERSION_MISMATCH, null);
+
+    private final Status status;
+    private final Todo todo;
+
+    private TodoWriteResult(Status status, Todo todo) {
+        this.status = status;
+        this.todo = todo;
+    }
+
+    /**
+     * The row was written; the todo reflects the state after the write
+     */
+    public static TodoWriteResult applied(Todo todo) {
+        return new TodoWriteResult(Status.APPLIED, todo);
+    }
+
+    /**
+     * The row was deleted
+     */
+    public static TodoWriteResult deleted() {
+        return DELETED;
+    }
+
+    public static TodoWriteResult notFound() {
+        return NOT_FOUND;
+    }
+
+    /**
+     * The row exists but its version no longer matches the expected one
+     */
+    public static TodoWriteResult versionMismatch() {
+        return VERSION_MISMATCH;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isApplied() {
+        return status == Status.APPLIED;
+    }
+
+    /**
+     * The written todo; empty unless an update was applied
+     */
+    public Optional<Todo> getTodo() {
+        return Optional.ofNullable(todo);
+    }
+}
@@ -0,0 +1,31 @@
+package com.todoapp.repository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Builds PostgreSQL tsquery strings from free-text user input
+ */
+public final class TsQueries {
+
+    private TsQueries() {
+    }
+
+    /**
+     * Turn "deplo stag" into "deplo:* & stag:*" so partial words match by prefix.
+     * Everything except letters and digits is dropped, so the result is always a valid tsquery.
+     *
+     * @return the tsquery text, or null if the input contains no searchable words
+     */
+    public static String prefixQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return null;
+        }
+        String query = Arrays.stream(searchTerm.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -0,0 +1,110 @@
+package com.todoapp.search;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last todo version applied to an in-process index, per id, so changes arriving out of order are dropped.
+ * Events from concurrent requests and catch-up pages read from the database can reach an index in any order;
+ * a write is only applied when its version is at least the one already applied. Deletions are remembered
+ * as newer than every version for a while, so a late update cannot bring a deleted todo back.
+ * Consumers that only need to drop duplicates, such as the live change feed, use the strict variants and may
+ * forget every mark once it is old enough.
+ */
+public final class AppliedVersions {
+
+    // Far longer than any event or catch-up page can be delayed; ids are never reused, so this only bounds memory
+    private static final long MARK_MEMORY_MILLIS = Duration.ofMinutes(10).toMillis();
+
+    private final Map<Long, Mark> marks = new ConcurrentHashMap<>();
+
+    /**
+     * Run the write unless a newer version of the todo was already applied or it was deleted.
+     * The write runs while the id is locked, so concurrent writes for one todo apply in version order.
+     * A null version (rows inserted by COPY) counts as the initial version 0.
+     */
+    public void applyIfCurrent(long id, Long version, Runnable write) {
+        long applied = version != null ? version : 0;
+        marks.compute(id, (key, mark) -> {
+            if (mark != null && (mark.deleted || mark.version > applied)) {
+                return mark;
+            }
+            write.run();
+            return new Mark(applied, false, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Run the write only if this version of the todo is newer than any applied so far, so each version is
+     * applied at most once; a null version counts as 0
+     */
+    public void applyIfNewer(long id, Long version, Runnable write) {
+        long applied = version != null ? version : 0;
+        marks.compute(id, (key, mark) -> {
+            if (mark != null && (mark.deleted || mark.version >= applied)) {
+                return mark;
+            }
+            write.run();
+            return new Mark(applied, false, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Run the removal and remember the deletion
+     */
+    public void delete(long id, Runnable removal) {
+        marks.compute(id, (key, mark) -> {
+            removal.run();
+            return new Mark(Long.MAX_VALUE, true, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Run the removal and remember the deletion, unless the deletion was already applied
+     */
+    public void deleteOnce(long id, Runnable removal) {
+        marks.compute(id, (key, mark) -> {
+            if (mark != null && mark.deleted) {
+                return mark;
+            }
+            removal.run();
+            return new Mark(Long.MAX_VALUE, true, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * Forget every version, before an index is reloaded from scratch
+     */
+    public void clear() {
+        marks.clear();
+    }
+
+    /**
+     * Forget deletions old enough that no delayed write for them can still arrive
+     */
+    public void pruneDeletions() {
+        long cutoff = System.currentTimeMillis() - MARK_MEMORY_MILLIS;
+        marks.values().removeIf(mark -> mark.deleted && mark.markedAtMillis < cutoff);
+    }
+
+    /**
+     * Forget every version and deletion old enough that no delayed write for it can still arrive
+     */
+    public void prune() {
+        long cutoff = System.currentTimeMillis() - MARK_MEMORY_MILLIS;
+        marks.values().removeIf(mark -> mark.markedAtMillis < cutoff);
+    }
+
+    private static final class Mark {
+        private final long version;
+        private final boolean deleted;
+        private final long markedAtMillis;
+
+        private Mark(long version, boolean deleted, long markedAtMillis) {
+            this.version = version;
+            this.deleted = deleted;
+            this.markedAtMillis = markedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.todoapp.search;
+
+import com.todoapp.repository.TodoView;
+import com.todoapp.service.TodoSyncService;
+
+/**
+ * Follows the delta-sync feed ({@link TodoSyncService}) for an in-process index, so the index also sees
+ * writes served by other instances. Take the starting token right before the index loads its initial state;
+ * every poll then applies the pages of changes and deletions committed since, and an expired token makes
+ * the index reload from scratch. Pages overlap by the commit-lag window, so targets must be idempotent.
+ */
+public class TodoChangeFollower {
+
+    /**
+     * The index the changes are applied to
+     */
+    public interface Target {
+        void upsert(TodoView todo);
+
+        void delete(long id);
+
+        /**
+         * Replace the whole index with the current table contents
+         */
+        void reload();
+    }
+
+    private final TodoSyncService syncService;
+    private String token;
+
+    public TodoChangeFollower(TodoSyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Start following from now; call before loading the initial state
+     */
+    public synchronized void start() {
+        token = syncService.currentToken();
+    }
+
+    /**
+     * Apply every change since the last poll, returning how many todos and deletions were applied
+     */
+    public synchronized int poll(Target target) {
+        if (token == null) {
+            return 0;
+        }
+        int applied = 0;
+        TodoSyncService.ChangeSet changes;
+        do {
+            try {
+                changes = syncService.getChangesSince(token);
+            } catch (TodoSyncService.ChangeTokenExpiredException e) {
+                // Deletions since the token may already be pruned, so only a full reload is safe
+                start();
+                target.reload();
+                return 0;
+            }
+            changes.getChanged().forEach(target::upsert);
+            changes.getDeleted().forEach(target::delete);
+            applied += changes.getChanged().size() + changes.getDeleted().size();
+            token = changes.getToken();
+        } while (changes.isHasMore());
+        return applied;
+    }
+}
@@ -0,0 +1,90 @@
+package com.todoapp.search;
+
+import com.todoapp.entity.Todo;
+
+import java.time.LocalDateTime;
+
+/**
+ * A todo as answered by the embedded search index, with its relevance score
+ * and highlighted fragments of the matching fields
+ */
+public class TodoSearchHit {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final boolean completed;
+    private final Todo.Priority priority;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final float score;
+    private final String titleHighlight;
+    private final String descriptionHighlight;
+
+    TodoSearchHit(Long id, String title, String description, boolean completed, Todo.Priority priority,
+                  LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt, float score,
+                  String titleHighlight, String descriptionHighlight) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.score = score;
+        this.titleHighlight = titleHighlight;
+        this.descriptionHighlight = descriptionHighlight;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    /**
+     * Title with matched terms wrapped in {@code <em>}, or null when the title did not match
+     */
+    public String getTitleHighlight() {
+        return titleHighlight;
+    }
+
+    /**
+     * Best matching description fragment with matched terms wrapped in {@code <em>}, or null
+     */
+    public String getDescriptionHighlight() {
+        return descriptionHighlight;
+    }
+}
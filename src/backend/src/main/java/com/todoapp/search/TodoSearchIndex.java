@@ -0,0 +1,423 @@
+package com.todoapp.search;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangedEvent;
+import com.todoapp.repository.TodoView;
+import com.todoapp.service.TodoService;
+import com.todoapp.service.TodoSyncService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * In-process Lucene index over todo titles and descriptions.
+ * Documents carry every todo field, so searches are answered without touching Postgres.
+ * The index is local to each instance: it is rebuilt from a streamed scan on startup and then
+ * kept in sync from {@link TodoChangedEvent}s for writes served here and from the delta-sync feed for
+ * writes served by other instances, with readers refreshed near-real-time. A change older than the
+ * version already indexed is dropped, so a late update cannot bring back a deleted todo.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.search.lucene", name = "enabled", havingValue = "true")
+public class TodoSearchIndex implements TodoChangeFollower.Target {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSearchIndex.class);
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_COMPLETED = "completed";
+    private static final String FIELD_PRIORITY = "priority";
+    private static final String FIELD_DUE_DATE = "dueDate";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+    private static final String FIELD_GENERATION = "generation";
+
+    private static final float TITLE_BOOST = 2.0f;
+    private static final int DESCRIPTION_FRAGMENT_LENGTH = 120;
+
+    private final TodoService todoService;
+    private final MeterRegistry meterRegistry;
+    private final Path indexPath;
+    private final Duration maxStale;
+    private final Duration minStale;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicLong generation = new AtomicLong();
+    private final AppliedVersions versions = new AppliedVersions();
+    private final TodoChangeFollower follower;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private Timer refreshTimer;
+    private Timer queryTimer;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoSearchIndex(TodoService todoService, TodoSyncService syncService, MeterRegistry meterRegistry,
+                           @Value("${app.search.lucene.path}") Path indexPath,
+                           @Value("${app.search.lucene.max-stale:1s}") Duration maxStale,
+                           @Value("${app.search.lucene.min-stale:25ms}") Duration minStale) {
+        this.todoService = todoService;
+        this.follower = new TodoChangeFollower(syncService);
+        this.meterRegistry = meterRegistry;
+        this.indexPath = indexPath;
+        this.maxStale = maxStale;
+        this.minStale = minStale;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(indexPath);
+        directory = new MMapDirectory(indexPath);
+        // Whatever a previous run left on disk is discarded; the startup rebuild repopulates it
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        searcherManager = new SearcherManager(writer, null);
+
+        refreshTimer = Timer.builder("todo_search_index_refresh_duration_seconds")
+                .description("Time taken to reopen the search index reader")
+                .register(meterRegistry);
+        queryTimer = Timer.builder("todo_search_query_duration_seconds")
+                .description("Time taken to answer a search from the embedded index")
+                .register(meterRegistry);
+        Gauge.builder("todo_search_index_documents", this, TodoSearchIndex::documentCount)
+                .description("Number of todos in the embedded search index")
+                .register(meterRegistry);
+        Gauge.builder("todo_search_index_size_bytes", this, TodoSearchIndex::sizeInBytes)
+                .description("On-disk size of the embedded search index")
+                .register(meterRegistry);
+        searcherManager.addListener(new RefreshTiming());
+
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                maxStale.toNanos() / 1e9, minStale.toNanos() / 1e9);
+        reopenThread.setName("todo-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+
+        follower.start();
+        rebuild();
+    }
+
+    /**
+     * Re-index every todo from a streamed scan.
+     * Documents are stamped with a new generation and anything older is dropped afterwards,
+     * so concurrent searches keep seeing a complete index while the rebuild runs. A todo changed or
+     * deleted by an event while the scan runs keeps that newer state.
+     */
+    public synchronized void rebuild() throws IOException {
+        long started = System.nanoTime();
+        long current = generation.incrementAndGet();
+        long[] indexed = {0};
+        todoService.streamAllTodos(todo -> {
+            upsert(TodoView.of(todo));
+            indexed[0]++;
+        });
+        writer.deleteDocuments(LongPoint.newRangeQuery(FIELD_GENERATION, Long.MIN_VALUE, current - 1));
+        writer.commit();
+        searcherManager.maybeRefresh();
+        logger.info("Indexed {} todos in {} ms", indexed[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        try {
+            if (event.getType() == TodoChangedEvent.Type.DELETED) {
+                delete(event.getTodoId());
+            } else {
+                upsert(TodoView.of(event.getTodo()));
+            }
+        } catch (UncheckedIOException e) {
+            // The database write already succeeded; the next rebuild repairs the index
+            logger.error("Failed to index change to todo {}", event.getTodoId(), e);
+        }
+    }
+
+    /**
+     * Apply writes served by other instances
+     */
+    @Scheduled(fixedDelayString = "${app.search.catch-up-interval:PT5S}")
+    public void catchUp() {
+        versions.pruneDeletions();
+        try {
+            follower.poll(this);
+        } catch (RuntimeException e) {
+            logger.warn("Catching up the search index failed; retrying on the next poll", e);
+        }
+    }
+
+    @Override
+    public void upsert(TodoView todo) {
+        versions.applyIfCurrent(todo.id(), todo.version(), () -> {
+            try {
+                writer.updateDocument(new Term(FIELD_ID, todo.id().toString()), toDocument(todo));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void delete(long id) {
+        versions.delete(id, () -> {
+            try {
+                writer.deleteDocuments(new Term(FIELD_ID, Long.toString(id)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void reload() {
+        try {
+            rebuild();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Search titles (boosted) and descriptions; every term must match, the last one also as a prefix.
+     *
+     * @param completed only todos with this status, or null for any
+     * @param priority  only todos with this priority, or null for any
+     */
+    public List<TodoSearchHit> search(String text, Boolean completed, Todo.Priority priority, int limit) {
+        return queryTimer.record(() -> {
+            try {
+                return doSearch(text, completed, priority, limit);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private List<TodoSearchHit> doSearch(String text, Boolean completed, Todo.Priority priority, int limit)
+            throws IOException {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder matching = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            matching.add(termQuery(terms.get(i), i == terms.size() - 1), BooleanClause.Occur.MUST);
+        }
+        Query relevance = matching.build();
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(relevance, BooleanClause.Occur.MUST);
+        if (completed != null) {
+            builder.add(new TermQuery(new Term(FIELD_COMPLETED, completed.toString())), BooleanClause.Occur.FILTER);
+        }
+        if (priority != null) {
+            builder.add(new TermQuery(new Term(FIELD_PRIORITY, priority.name())), BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(builder.build(), limit);
+            StoredFields storedFields = searcher.storedFields();
+            Highlighter highlighter = new Highlighter(
+                    new SimpleHTMLFormatter("<em>", "</em>"), new QueryScorer(relevance));
+            List<TodoSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score, highlighter));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private Query termQuery(String term, boolean prefix) {
+        BooleanQuery.Builder fields = new BooleanQuery.Builder();
+        for (String field : List.of(FIELD_TITLE, FIELD_DESCRIPTION)) {
+            Query query = prefix ? new PrefixQuery(new Term(field, term)) : new TermQuery(new Term(field, term));
+            if (FIELD_TITLE.equals(field)) {
+                query = new BoostQuery(query, TITLE_BOOST);
+            }
+            fields.add(query, BooleanClause.Occur.SHOULD);
+        }
+        return fields.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(FIELD_TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private Document toDocument(TodoView todo) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, todo.id().toString(), Field.Store.YES));
+        document.add(new TextField(FIELD_TITLE, todo.title(), Field.Store.YES));
+        if (todo.description() != null) {
+            document.add(new TextField(FIELD_DESCRIPTION, todo.description(), Field.Store.YES));
+        }
+        document.add(new StringField(FIELD_COMPLETED, Boolean.toString(todo.completed()), Field.Store.YES));
+        document.add(new StringField(FIELD_PRIORITY, todo.priority().name(), Field.Store.YES));
+        storeTimestamp(document, FIELD_DUE_DATE, todo.dueDate());
+        storeTimestamp(document, FIELD_CREATED_AT, todo.createdAt());
+        storeTimestamp(document, FIELD_UPDATED_AT, todo.updatedAt());
+        document.add(new LongPoint(FIELD_GENERATION, generation.get()));
+        return document;
+    }
+
+    private TodoSearchHit toHit(Document document, float score, Highlighter highlighter) throws IOException {
+        String title = document.get(FIELD_TITLE);
+        String description = document.get(FIELD_DESCRIPTION);
+        return new TodoSearchHit(
+                Long.valueOf(document.get(FIELD_ID)),
+                title,
+                description,
+                Boolean.parseBoolean(document.get(FIELD_COMPLETED)),
+                Todo.Priority.valueOf(document.get(FIELD_PRIORITY)),
+                readTimestamp(document, FIELD_DUE_DATE),
+                readTimestamp(document, FIELD_CREATED_AT),
+                readTimestamp(document, FIELD_UPDATED_AT),
+                score,
+                highlight(highlighter, FIELD_TITLE, title, Integer.MAX_VALUE),
+                highlight(highlighter, FIELD_DESCRIPTION, description, DESCRIPTION_FRAGMENT_LENGTH));
+    }
+
+    private String highlight(Highlighter highlighter, String field, String text, int fragmentLength)
+            throws IOException {
+        if (text == null) {
+            return null;
+        }
+        highlighter.setTextFragmenter(new SimpleFragmenter(fragmentLength));
+        try {
+            return highlighter.getBestFragment(analyzer, field, text);
+        } catch (InvalidTokenOffsetsException e) {
+            return null;
+        }
+    }
+
+    private static void storeTimestamp(Document document, String field, LocalDateTime value) {
+        if (value != null) {
+            document.add(new StoredField(field, value.toInstant(ZoneOffset.UTC).toEpochMilli()));
+        }
+    }
+
+    private static LocalDateTime readTimestamp(Document document, String field) {
+        IndexableField stored = document.getField(field);
+        if (stored == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(stored.numericValue().longValue()), ZoneOffset.UTC);
+    }
+
+    private double documentCount() {
+        return writer.getDocStats().numDocs;
+    }
+
+    private double sizeInBytes() {
+        long bytes = 0;
+        try {
+            for (String file : directory.listAll()) {
+                try {
+                    bytes += directory.fileLength(file);
+                } catch (IOException e) {
+                    // Merged away since listing
+                }
+            }
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+        return bytes;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    private final class RefreshTiming implements ReferenceManager.RefreshListener {
+
+        private long started;
+
+        @Override
+        public void beforeRefresh() {
+            started = System.nanoTime();
+        }
+
+        @Override
+        public void afterRefresh(boolean didRefresh) {
+            if (didRefresh) {
+                refreshTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
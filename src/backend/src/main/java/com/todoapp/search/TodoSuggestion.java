@@ -0,0 +1,37 @@
+package com.todoapp.search;
+
+import com.todoapp.entity.Todo;
+
+/**
+ * A todo title offered as an autocomplete completion
+ */
+public class TodoSuggestion {
+
+    private final Long id;
+    private final String title;
+    private final Todo.Priority priority;
+    private final boolean completed;
+
+    TodoSuggestion(Long id, String title, Todo.Priority priority, boolean completed) {
+        this.id = id;
+        this.title = title;
+        this.priority = priority;
+        this.completed = completed;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Todo.Priority getPriority() {
+        return priority;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+}
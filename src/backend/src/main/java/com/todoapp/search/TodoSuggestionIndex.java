@@ -0,0 +1,491 @@
+package com.todoapp.search;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangedEvent;
+import com.todoapp.repository.TodoView;
+import com.todoapp.service.TodoService;
+import com.todoapp.service.TodoSyncService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * In-memory autocomplete over title tokens.
+ * Tokens live in a radix tree (edges carry whole label runs rather than single characters) and
+ * every node caches its best {@code topK} todos, ranked by priority then recency, so a prefix lookup
+ * is a walk down the tree plus a copy of that cache. The tree is loaded on a background thread once the
+ * application is ready, so startup does not wait for a full table scan, and lookups are refused until the
+ * load completes. It is then maintained from {@link TodoChangedEvent}s for writes served here and from the
+ * delta-sync feed for writes served by other instances; inserts merge into the caches along their path and
+ * removals recompute only the touched paths. Changes older than the version already applied are dropped.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.search.suggest", name = "enabled", havingValue = "true")
+public class TodoSuggestionIndex implements TodoChangeFollower.Target {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoSuggestionIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparing((Entry entry) -> entry.priority).reversed()
+            .thenComparing((Entry entry) -> entry.recency, Comparator.reverseOrder())
+            .thenComparing((Entry entry) -> entry.id, Comparator.reverseOrder());
+
+    private final TodoService todoService;
+    private final int topK;
+    private final Timer lookupTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final AppliedVersions versions = new AppliedVersions();
+    private final TodoChangeFollower follower;
+    private volatile boolean ready;
+    // Set when a load threw; the next catch-up retries it
+    private volatile boolean loadFailed;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoSuggestionIndex(TodoService todoService, TodoSyncService syncService, MeterRegistry meterRegistry,
+                               @Value("${app.search.suggest.top-k:10}") int topK) {
+        this.todoService = todoService;
+        this.follower = new TodoChangeFollower(syncService);
+        this.topK = topK;
+        this.lookupTimer = Timer.builder("todo_suggest_duration_seconds")
+                .description("Time taken to answer an autocomplete lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::loadOrRetryLater, "todo-suggest-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Whether the initial load has completed and lookups reflect the whole table
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replace the tree with the current table contents; lookups are refused until it is loaded
+     */
+    public synchronized void load() {
+        long started = System.nanoTime();
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.top = NO_ENTRIES;
+            root.entries = null;
+            entries.clear();
+            versions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        follower.start();
+        todoService.streamAllTodos(todo -> upsert(TodoView.of(todo)));
+        ready = true;
+        logger.info("Loaded {} todo titles into the suggestion index in {} ms", entries.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void loadOrRetryLater() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            loadFailed = true;
+            logger.error("Loading the suggestion index failed; retrying on the next catch-up", e);
+        }
+    }
+
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        if (event.getType() == TodoChangedEvent.Type.DELETED) {
+            delete(event.getTodoId());
+        } else {
+            upsert(TodoView.of(event.getTodo()));
+        }
+    }
+
+    /**
+     * Apply writes served by other instances
+     */
+    @Scheduled(fixedDelayString = "${app.search.catch-up-interval:PT5S}")
+    public void catchUp() {
+        if (loadFailed) {
+            loadFailed = false;
+            loadOrRetryLater();
+            return;
+        }
+        versions.pruneDeletions();
+        try {
+            follower.poll(this);
+        } catch (RuntimeException e) {
+            logger.warn("Catching up the suggestion index failed; retrying on the next poll", e);
+        }
+    }
+
+    @Override
+    public void upsert(TodoView todo) {
+        versions.applyIfCurrent(todo.id(), todo.version(), () -> put(todo));
+    }
+
+    @Override
+    public void delete(long id) {
+        versions.delete(id, () -> remove(id));
+    }
+
+    @Override
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Best completions for what the user has typed so far.
+     * The last word is matched as a prefix; any earlier words must match title words exactly.
+     */
+    public List<TodoSuggestion> suggest(String prefix, int limit) {
+        return lookupTimer.record(() -> {
+            List<String> tokens = tokenize(prefix);
+            if (tokens.isEmpty()) {
+                return List.of();
+            }
+            int max = Math.min(limit, topK);
+            lock.readLock().lock();
+            try {
+                Entry[] ranked = tokens.size() == 1
+                        ? lookup(tokens.get(0))
+                        : lookupPhrase(tokens);
+                List<TodoSuggestion> suggestions = new ArrayList<>(Math.min(max, ranked.length));
+                for (int i = 0; i < ranked.length && suggestions.size() < max; i++) {
+                    suggestions.add(ranked[i].toSuggestion());
+                }
+                return suggestions;
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    private Entry[] lookup(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                return NO_ENTRIES;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common == rest.length()) {
+                return child.top;
+            }
+            if (common < child.label.length()) {
+                return NO_ENTRIES;
+            }
+            rest = rest.substring(common);
+            node = child;
+        }
+        return node.top;
+    }
+
+    /**
+     * Narrow by the rarest completed word, then check the remaining words against each candidate
+     */
+    private Entry[] lookupPhrase(List<String> tokens) {
+        String last = tokens.get(tokens.size() - 1);
+        NavigableSet<Entry> narrowest = null;
+        for (String word : tokens.subList(0, tokens.size() - 1)) {
+            Node node = find(word);
+            if (node == null || node.entries == null) {
+                return NO_ENTRIES;
+            }
+            if (narrowest == null || node.entries.size() < narrowest.size()) {
+                narrowest = node.entries;
+            }
+        }
+        // Already in ranking order, so stop at the first topK matches
+        List<Entry> matches = new ArrayList<>(topK);
+        for (Entry entry : narrowest) {
+            if (entry.matches(tokens, last)) {
+                matches.add(entry);
+                if (matches.size() == topK) {
+                    break;
+                }
+            }
+        }
+        return matches.toArray(NO_ENTRIES);
+    }
+
+    private void put(TodoView todo) {
+        Entry entry = new Entry(todo);
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(entry.id, entry);
+            if (previous != null) {
+                for (String token : previous.tokens) {
+                    removeToken(token, previous);
+                }
+            }
+            for (String token : entry.tokens) {
+                insertToken(token, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.get(id);
+            if (previous != null) {
+                for (String token : previous.tokens) {
+                    removeToken(token, previous);
+                }
+                entries.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insertToken(String token, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.children.put(rest.charAt(0), child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                // Split the edge so the shared part becomes its own node
+                Node split = new Node(child.label.substring(0, common));
+                split.top = child.top;
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            path.add(node);
+            rest = rest.substring(common);
+        }
+        if (node.entries == null) {
+            node.entries = new TreeSet<>(RANKING);
+        }
+        node.entries.add(entry);
+        // An insert can only push the new entry into each cache on the path, so no full recompute is needed
+        for (Node onPath : path) {
+            onPath.top = promote(onPath.top, entry);
+        }
+    }
+
+    private void removeToken(String token, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return;
+            }
+            node = child;
+            path.add(node);
+            rest = rest.substring(child.label.length());
+        }
+        if (node.entries == null || !node.entries.remove(entry)) {
+            return;
+        }
+        if (node.entries.isEmpty()) {
+            node.entries = null;
+        }
+        // Prune empty leaves and re-merge single-child nodes to keep the tree compressed
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.entries != null) {
+                break;
+            }
+            if (current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+                path.remove(i);
+            } else if (current.children.size() == 1) {
+                Node only = current.children.values().iterator().next();
+                only.label = current.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+                path.remove(i);
+                break;
+            } else {
+                break;
+            }
+        }
+        refresh(path);
+    }
+
+    /**
+     * Recompute cached completions bottom-up along a root-to-node path
+     */
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Set<Entry> candidates = new LinkedHashSet<>();
+            if (node.entries != null) {
+                // Entries are kept in ranking order, so only the first topK can make the cut
+                for (Entry entry : node.entries) {
+                    if (candidates.size() == topK) {
+                        break;
+                    }
+                    candidates.add(entry);
+                }
+            }
+            for (Node child : node.children.values()) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            node.top = candidates.stream().sorted(RANKING).limit(topK).toArray(Entry[]::new);
+        }
+    }
+
+    private Entry[] promote(Entry[] top, Entry entry) {
+        int position = 0;
+        while (position < top.length) {
+            if (top[position] == entry) {
+                return top;
+            }
+            if (RANKING.compare(entry, top[position]) < 0) {
+                break;
+            }
+            position++;
+        }
+        if (position >= topK) {
+            return top;
+        }
+        Entry[] promoted = new Entry[Math.min(top.length + 1, topK)];
+        System.arraycopy(top, 0, promoted, 0, position);
+        promoted[position] = entry;
+        System.arraycopy(top, position, promoted, position + 1, promoted.length - position - 1);
+        return promoted;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Node find(String token) {
+        Node node = root;
+        String rest = token;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return null;
+            }
+            node = child;
+            rest = rest.substring(child.label.length());
+        }
+        return node;
+    }
+
+    private static final class Node {
+
+        private String label;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private NavigableSet<Entry> entries;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Long id;
+        private final String title;
+        private final Todo.Priority priority;
+        private final boolean completed;
+        private final LocalDateTime recency;
+        private final Set<String> tokens;
+
+        private Entry(TodoView todo) {
+            this.id = todo.id();
+            this.title = todo.title();
+            this.priority = todo.priority();
+            this.completed = todo.completed();
+            this.recency = todo.updatedAt() != null ? todo.updatedAt() : todo.createdAt();
+            this.tokens = new LinkedHashSet<>(tokenize(todo.title()));
+        }
+
+        private boolean matches(List<String> words, String lastPrefix) {
+            if (!tokens.containsAll(words.subList(0, words.size() - 1))) {
+                return false;
+            }
+            for (String token : tokens) {
+                if (token.startsWith(lastPrefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private TodoSuggestion toSuggestion() {
+            return new TodoSuggestion(id, title, priority, completed);
+        }
+    }
+}
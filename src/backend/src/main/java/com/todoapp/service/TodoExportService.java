@@ -0,0 +1,61 @@
+package com.todoapp.service;
+
+import com.todoapp.entity.Todo;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * Bulk export of todos for reporting jobs
+ */
+public interface TodoExportService {
+
+    /**
+     * Write the selected todos to {@code out} straight from PostgreSQL (COPY TO STDOUT), ordered by id.
+     * At most one of {@code view}, {@code completed} and {@code priority} narrows the selection,
+     * mirroring the list endpoints. Returns the number of rows written.
+     */
+    long exportTodos(ExportFormat format, ExportView view, Boolean completed, Todo.Priority priority,
+                     OutputStream out);
+
+    enum ExportFormat {
+        /** Header row followed by one row per todo */
+        CSV("text/csv", "csv"),
+        /** One JSON object per line */
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        ExportFormat(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat fromParam(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Date- and priority-based selections offered by the list endpoints
+     */
+    enum ExportView {
+        ALL, OVERDUE, DUE_TODAY, DUE_THIS_WEEK, HIGH_PRIORITY;
+
+        /**
+         * Parse the list endpoint path style, e.g. {@code due-today}
+         */
+        public static ExportView fromParam(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+}
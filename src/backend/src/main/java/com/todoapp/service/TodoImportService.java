@@ -0,0 +1,137 @@
+package com.todoapp.service;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Bulk import of todos exported from other tools
+ */
+public interface TodoImportService {
+
+    /**
+     * Stream-parse the body, validate every row against the Todo rules and COPY valid rows into
+     * the database in bounded chunks. Runs on the calling thread; progress of running and recent
+     * imports is visible through {@link #getImport(String)} and {@link #getRecentImports()}.
+     */
+    ImportReport importTodos(InputStream body, ImportFormat format);
+
+    Optional<ImportReport> getImport(String id);
+
+    /**
+     * Running and recently finished imports, newest first
+     */
+    List<ImportReport> getRecentImports();
+
+    enum ImportFormat {
+        /** Header row naming the columns: title, description, completed, priority, dueDate */
+        CSV("text/csv"),
+        /** One JSON object per line with the same properties as the CSV columns */
+        NDJSON("application/x-ndjson");
+
+        private final String mediaType;
+
+        ImportFormat(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public static Optional<ImportFormat> fromContentType(String contentType) {
+            if (contentType == null) {
+                return Optional.empty();
+            }
+            String type = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            for (ImportFormat format : values()) {
+                if (format.mediaType.equals(type)) {
+                    return Optional.of(format);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    enum ImportState {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * Point-in-time view of an import's progress
+     */
+    class ImportReport {
+        private final String id;
+        private final ImportFormat format;
+        private final ImportState state;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+        private final long rowsRead;
+        private final long rowsImported;
+        private final long rowsRejected;
+        private final double rowsPerSecond;
+        private final List<RejectedRow> rejectedRows;
+        private final String failure;
+
+        public ImportReport(final String id, final ImportFormat format, final ImportState state,
+                            final LocalDateTime startedAt, final LocalDateTime finishedAt,
+                            final long rowsRead, final long rowsImported, final long rowsRejected,
+                            final double rowsPerSecond, final List<RejectedRow> rejectedRows, final String failure) {
+            this.id = id;
+            this.format = format;
+            this.state = state;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+            this.rowsRead = rowsRead;
+            this.rowsImported = rowsImported;
+            this.rowsRejected = rowsRejected;
+            this.rowsPerSecond = rowsPerSecond;
+            this.rejectedRows = List.copyOf(rejectedRows);
+            this.failure = failure;
+        }
+
+        public String getId() { return id; }
+
+        public ImportFormat getFormat() { return format; }
+
+        public ImportState getState() { return state; }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+
+        public long getRowsRead() { return rowsRead; }
+
+        public long getRowsImported() { return rowsImported; }
+
+        public long getRowsRejected() { return rowsRejected; }
+
+        public double getRowsPerSecond() { return rowsPerSecond; }
+
+        /**
+         * The first rejected rows (capped; see {@link #getRowsRejected()} for the total)
+         */
+        public List<RejectedRow> getRejectedRows() { return rejectedRows; }
+
+        public String getFailure() { return failure; }
+    }
+
+    /**
+     * A row that was not imported, identified by its line in the uploaded file
+     */
+    class RejectedRow {
+        private final long line;
+        private final String reason;
+
+        public RejectedRow(final long line, final String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() { return line; }
+
+        public String getReason() { return reason; }
+    }
+}
@@ -1,12 +1,26 @@
 package com.todoapp.service;
 
 import com.todoapp.entity.Todo;
+import com.todoapp.pagination.CursorPage;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.repository.TodoChangeMarker;
+import com.todoapp.repository.TodoField;
+import com.todoapp.repository.TodoPatch;
+import com.todoapp.repository.TodoVersionView;
+import com.todoapp.repository.TodoView;
+import com.todoapp.repository.TodoWriteResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * Service interface for Todo business logic
@@ -18,75 +32,183 @@ public interface TodoService {
      */
     Todo createTodo(Todo todo);
 
+    /**
+     * Create many todos in one JDBC-batched transaction.
+     * Items failing validation are skipped and reported by their position in the input.
+     */
+    BatchResult createTodos(List<Todo> todos);
+
+    /**
+     * Apply one change to every todo selected by an id list or a filter using set-based statements
+     * of bounded size, instead of a read-modify-write per todo
+     *
+     * @throws IllegalArgumentException if the mutation is incomplete or selects neither ids nor a filter
+     */
+    BulkResult bulkMutate(BulkMutation mutation);
+
     /**
      * Get all todos with pagination
      */
-    Page<Todo> getAllTodos(Pageable pageable);
+    Page<TodoView> getAllTodos(Pageable pageable);
+
+    /**
+     * Get all todos with keyset pagination
+     */
+    CursorPage<TodoView> getAllTodos(CursorRequest request);
 
     /**
      * Get all todos without pagination
      */
-    List<Todo> getAllTodos();
+    List<TodoView> getAllTodos();
+
+    /**
+     * Get only the given fields of todos matching the optional status and priority, with keyset pagination
+     */
+    CursorPage<Map<String, Object>> getTodoFields(Boolean completed, Todo.Priority priority, Set<TodoField> fields,
+                                                  CursorRequest request);
+
+    /**
+     * Get only the given fields of all todos, with offset pagination in the request's sort order
+     */
+    Page<Map<String, Object>> getTodoFields(Set<TodoField> fields, CursorRequest order, int page);
+
+    /**
+     * Get only the given fields of todos matching the optional status and priority, without pagination
+     */
+    List<Map<String, Object>> getAllTodoFields(Boolean completed, Todo.Priority priority, Set<TodoField> fields);
+
+    /**
+     * Stream all todos to the consumer one at a time with constant memory use
+     */
+    void streamAllTodos(Consumer<Todo> consumer);
 
     /**
      * Get todo by ID
      */
-    Optional<Todo> getTodoById(Long id);
+    Optional<TodoView> getTodoById(Long id);
 
     /**
-     * Update an existing todo
+     * Get many todos by id in one query, in request order; ids that do not exist are reported as missing
+     *
+     * @throws IllegalArgumentException if an id is null or more ids are requested than allowed
      */
-    Todo updateTodo(Long id, Todo todoDetails);
+    MultiGetResult getTodosByIds(List<Long> ids);
 
     /**
-     * Delete a todo
+     * Version and update time of a todo, without loading it
      */
-    void deleteTodo(Long id);
+    Optional<TodoVersionView> getTodoVersion(Long id);
 
     /**
-     * Mark todo as completed
+     * Marker that changes whenever any todo is inserted, updated or deleted
      */
-    Todo markAsCompleted(Long id);
+    TodoChangeMarker getChangeMarker();
 
     /**
-     * Mark todo as incomplete
+     * Update an existing todo. With an expected version the update only applies while the todo still has it;
+     * null updates unconditionally.
      */
-    Todo markAsIncomplete(Long id);
+    TodoWriteResult updateTodo(Long id, Todo todoDetails, Long expectedVersion);
+
+    /**
+     * Write only the columns in the patch with one statement, validated against the Todo constraints.
+     * A non-null expected version makes the write conditional, like {@link #updateTodo}.
+     *
+     * @throws IllegalArgumentException if a patched value is invalid
+     */
+    TodoWriteResult patchTodo(Long id, TodoPatch patch, Long expectedVersion);
+
+    /**
+     * Delete a todo with a single statement, conditional on the version when one is expected
+     */
+    TodoWriteResult deleteTodo(Long id, Long expectedVersion);
+
+    /**
+     * Mark todo as completed, empty when no todo has the ID.
+     * With write-behind enabled the change is only buffered, and the result carries no version yet.
+     */
+    Optional<TodoView> markAsCompleted(Long id);
+
+    /**
+     * Mark todo as incomplete, empty when no todo has the ID.
+     * With write-behind enabled the change is only buffered, and the result carries no version yet.
+     */
+    Optional<TodoView> markAsIncomplete(Long id);
 
     /**
      * Get todos by completion status
      */
-    List<Todo> getTodosByStatus(boolean completed);
+    List<TodoView> getTodosByStatus(boolean completed);
+
+    /**
+     * Get todos by completion status with keyset pagination
+     */
+    CursorPage<TodoView> getTodosByStatus(boolean completed, CursorRequest request);
 
     /**
      * Get todos by priority
      */
-    List<Todo> getTodosByPriority(Todo.Priority priority);
+    List<TodoView> getTodosByPriority(Todo.Priority priority);
+
+    /**
+     * Get todos by priority with keyset pagination
+     */
+    CursorPage<TodoView> getTodosByPriority(Todo.Priority priority, CursorRequest request);
 
     /**
      * Search todos by title or description
      */
-    List<Todo> searchTodos(String searchTerm);
+    List<TodoView> searchTodos(String searchTerm);
+
+    /**
+     * Typo-tolerant substring search using trigram similarity, best matches first
+     */
+    List<TodoView> fuzzySearchTodos(String searchTerm, double similarityThreshold, int limit);
+
+    /**
+     * Search todos by title or description, paginated by relevance with an opaque rank cursor
+     */
+    CursorPage<TodoView> searchTodos(String searchTerm, String cursor, int size);
 
     /**
      * Get overdue todos
      */
-    List<Todo> getOverdueTodos();
+    List<TodoView> getOverdueTodos();
+
+    /**
+     * Get overdue todos with keyset pagination
+     */
+    CursorPage<TodoView> getOverdueTodos(CursorRequest request);
 
     /**
      * Get todos due today
      */
-    List<Todo> getTodosDueToday();
+    List<TodoView> getTodosDueToday();
+
+    /**
+     * Get todos due today with keyset pagination
+     */
+    CursorPage<TodoView> getTodosDueToday(CursorRequest request);
 
     /**
      * Get todos due this week
      */
-    List<Todo> getTodosDueThisWeek();
+    List<TodoView> getTodosDueThisWeek();
+
+    /**
+     * Get todos due this week with keyset pagination
+     */
+    CursorPage<TodoView> getTodosDueThisWeek(CursorRequest request);
 
     /**
      * Get high priority incomplete todos
      */
-    List<Todo> getHighPriorityIncompleteTodos();
+    List<TodoView> getHighPriorityIncompleteTodos();
+
+    /**
+     * Get high priority incomplete todos with keyset pagination
+     */
+    CursorPage<TodoView> getHighPriorityIncompleteTodos(CursorRequest request);
 
     /**
      * Get todo statistics
@@ -140,4 +262,139 @@ public interface TodoService {
             return totalTodos > 0 ? (double) completedTodos / totalTodos * 100 : 0.0;
         }
     }
+
+    /**
+     * Outcome of a bulk create: ids of the inserted todos (in input order) and rejected items
+     */
+    class BatchResult {
+        private final List<Long> createdIds;
+        private final List<ItemError> errors;
+
+        public BatchResult(final List<Long> createdIds, final List<ItemError> errors) {
+            this.createdIds = List.copyOf(createdIds);
+            this.errors = List.copyOf(errors);
+        }
+
+        public List<Long> getCreatedIds() { return createdIds; }
+
+        public List<ItemError> getErrors() { return errors; }
+    }
+
+    /**
+     * Change applied by a bulk mutation
+     */
+    enum BulkAction {
+        COMPLETE, REOPEN, RESCHEDULE, REPRIORITIZE, DELETE
+    }
+
+    /**
+     * Bulk mutation request: the action, its argument (dueDate or priority), and either ids or a filter
+     */
+    class BulkMutation {
+        private BulkAction action;
+        private List<Long> ids;
+        private BulkFilter filter;
+        private LocalDateTime dueDate;
+        private Todo.Priority priority;
+
+        public BulkAction getAction() { return action; }
+        public void setAction(BulkAction action) { this.action = action; }
+
+        public List<Long> getIds() { return ids == null ? null : List.copyOf(ids); }
+        public void setIds(List<Long> ids) { this.ids = ids == null ? null : new ArrayList<>(ids); }
+
+        @SuppressFBWarnings("EI_EXPOSE_REP")
+        public BulkFilter getFilter() { return filter; }
+        @SuppressFBWarnings("EI_EXPOSE_REP2")
+        public void setFilter(BulkFilter filter) { this.filter = filter; }
+
+        public LocalDateTime getDueDate() { return dueDate; }
+        public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+
+        public Todo.Priority getPriority() { return priority; }
+        public void setPriority(Todo.Priority priority) { this.priority = priority; }
+    }
+
+    /**
+     * Selection by status, priority and due range (dueFrom inclusive, dueBefore exclusive)
+     */
+    class BulkFilter {
+        private Boolean completed;
+        private Todo.Priority priority;
+        private LocalDateTime dueFrom;
+        private LocalDateTime dueBefore;
+
+        public Boolean getCompleted() { return completed; }
+        public void setCompleted(Boolean completed) { this.completed = completed; }
+
+        public Todo.Priority getPriority() { return priority; }
+        public void setPriority(Todo.Priority priority) { this.priority = priority; }
+
+        public LocalDateTime getDueFrom() { return dueFrom; }
+        public void setDueFrom(LocalDateTime dueFrom) { this.dueFrom = dueFrom; }
+
+        public LocalDateTime getDueBefore() { return dueBefore; }
+        public void setDueBefore(LocalDateTime dueBefore) { this.dueBefore = dueBefore; }
+    }
+
+    /**
+     * Outcome of a bulk mutation: ids actually changed (or deleted) and how many statements ran
+     */
+    class BulkResult {
+        private final BulkAction action;
+        private final List<Long> affectedIds;
+        private final int statements;
+
+        public BulkResult(final BulkAction action, final List<Long> affectedIds, final int statements) {
+            this.action = action;
+            this.affectedIds = List.copyOf(affectedIds);
+            this.statements = statements;
+        }
+
+        public BulkAction getAction() { return action; }
+
+        public int getAffected() { return affectedIds.size(); }
+
+        public List<Long> getAffectedIds() { return affectedIds; }
+
+        public int getStatements() { return statements; }
+    }
+
+    /**
+     * Outcome of a multi-get: the todos found (in request order, each once) and the ids that were not found
+     */
+    class MultiGetResult {
+        private final List<TodoView> todos;
+        private final List<Long> missingIds;
+
+        public MultiGetResult(final List<TodoView> todos, final List<Long> missingIds) {
+            this.todos = List.copyOf(todos);
+            this.missingIds = List.copyOf(missingIds);
+        }
+
+        public List<TodoView> getTodos() { return todos; }
+
+        public List<Long> getMissingIds() { return missingIds; }
+    }
+
+    /**
+     * A validation failure for one item of a bulk request
+     */
+    class ItemError {
+        private final int index;
+        private final String field;
+        private final String message;
+
+        public ItemError(final int index, final String field, final String message) {
+            this.index = index;
+            this.field = field;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+
+        public String getField() { return field; }
+
+        public String getMessage() { return message; }
+    }
 }
@@ -0,0 +1,68 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.TodoView;
+
+import java.util.List;
+
+/**
+ * Delta sync for clients that keep a local replica of the todos and refresh it in O(changes)
+ */
+public interface TodoSyncService {
+
+    /**
+     * Todos written and ids deleted after the token's watermark, plus the token for the next call.
+     * A null token returns every todo. Large deltas come in pages: while {@code hasMore} is set the client
+     * calls again with the returned token, and deleted ids arrive with the last page. Changes close to the
+     * new watermark may be sent again, so clients apply the changed todos as upserts and then the deleted ids.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     * @throws ChangeTokenExpiredException if deletions after the token may already have been pruned
+     */
+    ChangeSet getChangesSince(String token);
+
+    /**
+     * Token from which {@link #getChangesSince} returns every change committed from now on, for replicas
+     * that load their initial state some other way (such as a streamed scan)
+     */
+    String currentToken();
+
+    /**
+     * Drop tombstones older than the retention horizon, returning how many were removed
+     */
+    int pruneTombstones();
+
+    /**
+     * One page of the todos changed and deleted since a watermark
+     */
+    class ChangeSet {
+        private final List<TodoView> changed;
+        private final List<Long> deleted;
+        private final String token;
+        private final boolean hasMore;
+
+        public ChangeSet(final List<TodoView> changed, final List<Long> deleted, final String token,
+                         final boolean hasMore) {
+            this.changed = List.copyOf(changed);
+            this.deleted = List.copyOf(deleted);
+            this.token = token;
+            this.hasMore = hasMore;
+        }
+
+        public List<TodoView> getChanged() { return changed; }
+
+        public List<Long> getDeleted() { return deleted; }
+
+        public String getToken() { return token; }
+
+        public boolean isHasMore() { return hasMore; }
+    }
+
+    /**
+     * The token predates the tombstone retention horizon; the client has to resync from scratch
+     */
+    class ChangeTokenExpiredException extends RuntimeException {
+        public ChangeTokenExpiredException(String message) {
+            super(message);
+        }
+    }
+}
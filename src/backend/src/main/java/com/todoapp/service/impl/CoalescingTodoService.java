@@ -0,0 +1,314 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.pagination.CursorPage;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.repository.TodoChangeMarker;
+import com.todoapp.repository.TodoField;
+import com.todoapp.repository.TodoPatch;
+import com.todoapp.repository.TodoVersionView;
+import com.todoapp.repository.TodoView;
+import com.todoapp.repository.TodoWriteResult;
+import com.todoapp.service.TodoService;
+import com.todoapp.service.support.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Single-flight layer in front of {@link TodoServiceImpl} for the unpaginated dashboard reads (overdue,
+ * due today, due this week, high priority, statistics). Identical concurrent calls share one in-flight
+ * query and its result. A call is keyed by its method and arguments, and reads that depend on the current
+ * time also by the time bucket they arrive in, so a call never joins a query that started in an earlier
+ * bucket. Statistics additionally reuse the last snapshot for a short freshness window; the other reads
+ * cache nothing once the query returns. Everything else is passed straight through.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "app.read-coalescing", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class CoalescingTodoService implements TodoService {
+
+    private final TodoServiceImpl delegate;
+    private final long timeBucketMillis;
+    private final CoalescedRead<List<TodoView>> overdue;
+    private final CoalescedRead<List<TodoView>> dueToday;
+    private final CoalescedRead<List<TodoView>> dueThisWeek;
+    private final CoalescedRead<List<TodoView>> highPriority;
+    private final CoalescedRead<TodoStatistics> statistics;
+    private final Counter statisticsCached;
+    private final long statisticsFreshnessNanos;
+    private volatile StatisticsSnapshot statisticsSnapshot;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public CoalescingTodoService(TodoServiceImpl delegate, MeterRegistry meterRegistry,
+                                 @Value("${app.read-coalescing.time-bucket:1s}") Duration timeBucket,
+                                 @Value("${app.statistics.freshness-window:2s}") Duration statisticsFreshness) {
+        this.delegate = delegate;
+        this.timeBucketMillis = Math.max(1, timeBucket.toMillis());
+        this.overdue = new CoalescedRead<>("overdue", meterRegistry);
+        this.dueToday = new CoalescedRead<>("due-today", meterRegistry);
+        this.dueThisWeek = new CoalescedRead<>("due-this-week", meterRegistry);
+        this.highPriority = new CoalescedRead<>("high-priority", meterRegistry);
+        this.statistics = new CoalescedRead<>("statistics", meterRegistry);
+        this.statisticsCached = CoalescedRead.register(meterRegistry, "statistics", "cached");
+        this.statisticsFreshnessNanos = statisticsFreshness.toNanos();
+    }
+
+    @Override
+    public List<TodoView> getOverdueTodos() {
+        return overdue.execute(List.of(currentTimeBucket()), delegate::getOverdueTodos);
+    }
+
+    @Override
+    public List<TodoView> getTodosDueToday() {
+        return dueToday.execute(List.of(currentTimeBucket()), delegate::getTodosDueToday);
+    }
+
+    @Override
+    public List<TodoView> getTodosDueThisWeek() {
+        return dueThisWeek.execute(List.of(currentTimeBucket()), delegate::getTodosDueThisWeek);
+    }
+
+    @Override
+    public List<TodoView> getHighPriorityIncompleteTodos() {
+        return highPriority.execute(List.of(), delegate::getHighPriorityIncompleteTodos);
+    }
+
+    @Override
+    public TodoStatistics getTodoStatistics() {
+        StatisticsSnapshot snapshot = statisticsSnapshot;
+        if (snapshot != null && snapshot.isFresh(statisticsFreshnessNanos)) {
+            statisticsCached.increment();
+            return snapshot.statistics;
+        }
+
+        return statistics.execute(List.of(currentTimeBucket()), () -> {
+            TodoStatistics computed = delegate.getTodoStatistics();
+            statisticsSnapshot = new StatisticsSnapshot(computed, System.nanoTime());
+            return computed;
+        });
+    }
+
+    @Override
+    public Todo createTodo(Todo todo) {
+        return delegate.createTodo(todo);
+    }
+
+    @Override
+    public BatchResult createTodos(List<Todo> todos) {
+        return delegate.createTodos(todos);
+    }
+
+    @Override
+    public BulkResult bulkMutate(BulkMutation mutation) {
+        return delegate.bulkMutate(mutation);
+    }
+
+    @Override
+    public Page<TodoView> getAllTodos(Pageable pageable) {
+        return delegate.getAllTodos(pageable);
+    }
+
+    @Override
+    public CursorPage<TodoView> getAllTodos(CursorRequest request) {
+        return delegate.getAllTodos(request);
+    }
+
+    @Override
+    public List<TodoView> getAllTodos() {
+        return delegate.getAllTodos();
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> getTodoFields(Boolean completed, Todo.Priority priority,
+                                                         Set<TodoField> fields, CursorRequest request) {
+        return delegate.getTodoFields(completed, priority, fields, request);
+    }
+
+    @Override
+    public Page<Map<String, Object>> getTodoFields(Set<TodoField> fields, CursorRequest order, int page) {
+        return delegate.getTodoFields(fields, order, page);
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllTodoFields(Boolean completed, Todo.Priority priority,
+                                                      Set<TodoField> fields) {
+        return delegate.getAllTodoFields(completed, priority, fields);
+    }
+
+    @Override
+    public void streamAllTodos(Consumer<Todo> consumer) {
+        delegate.streamAllTodos(consumer);
+    }
+
+    @Override
+    public Optional<TodoView> getTodoById(Long id) {
+        return delegate.getTodoById(id);
+    }
+
+    @Override
+    public MultiGetResult getTodosByIds(List<Long> ids) {
+        return delegate.getTodosByIds(ids);
+    }
+
+    @Override
+    public Optional<TodoVersionView> getTodoVersion(Long id) {
+        return delegate.getTodoVersion(id);
+    }
+
+    @Override
+    public TodoChangeMarker getChangeMarker() {
+        return delegate.getChangeMarker();
+    }
+
+    @Override
+    public TodoWriteResult updateTodo(Long id, Todo todoDetails, Long expectedVersion) {
+        return delegate.updateTodo(id, todoDetails, expectedVersion);
+    }
+
+    @Override
+    public TodoWriteResult patchTodo(Long id, TodoPatch patch, Long expectedVersion) {
+        return delegate.patchTodo(id, patch, expectedVersion);
+    }
+
+    @Override
+    public TodoWriteResult deleteTodo(Long id, Long expectedVersion) {
+        return delegate.deleteTodo(id, expectedVersion);
+    }
+
+    @Override
+    public Optional<TodoView> markAsCompleted(Long id) {
+        return delegate.markAsCompleted(id);
+    }
+
+    @Override
+    public Optional<TodoView> markAsIncomplete(Long id) {
+        return delegate.markAsIncomplete(id);
+    }
+
+    @Override
+    public List<TodoView> getTodosByStatus(boolean completed) {
+        return delegate.getTodosByStatus(completed);
+    }
+
+    @Override
+    public CursorPage<TodoView> getTodosByStatus(boolean completed, CursorRequest request) {
+        return delegate.getTodosByStatus(completed, request);
+    }
+
+    @Override
+    public List<TodoView> getTodosByPriority(Todo.Priority priority) {
+        return delegate.getTodosByPriority(priority);
+    }
+
+    @Override
+    public CursorPage<TodoView> getTodosByPriority(Todo.Priority priority, CursorRequest request) {
+        return delegate.getTodosByPriority(priority, request);
+    }
+
+    @Override
+    public List<TodoView> searchTodos(String searchTerm) {
+        return delegate.searchTodos(searchTerm);
+    }
+
+    @Override
+    public List<TodoView> fuzzySearchTodos(String searchTerm, double similarityThreshold, int limit) {
+        return delegate.fuzzySearchTodos(searchTerm, similarityThreshold, limit);
+    }
+
+    @Override
+    public CursorPage<TodoView> searchTodos(String searchTerm, String cursor, int size) {
+        return delegate.searchTodos(searchTerm, cursor, size);
+    }
+
+    @Override
+    public CursorPage<TodoView> getOverdueTodos(CursorRequest request) {
+        return delegate.getOverdueTodos(request);
+    }
+
+    @Override
+    public CursorPage<TodoView> getTodosDueToday(CursorRequest request) {
+        return delegate.getTodosDueToday(request);
+    }
+
+    @Override
+    public CursorPage<TodoView> getTodosDueThisWeek(CursorRequest request) {
+        return delegate.getTodosDueThisWeek(request);
+    }
+
+    @Override
+    public CursorPage<TodoView> getHighPriorityIncompleteTodos(CursorRequest request) {
+        return delegate.getHighPriorityIncompleteTodos(request);
+    }
+
+    @Override
+    public void cleanupOldCompletedTodos(int daysToKeep) {
+        delegate.cleanupOldCompletedTodos(daysToKeep);
+    }
+
+    private long currentTimeBucket() {
+        return System.currentTimeMillis() / timeBucketMillis;
+    }
+
+    /**
+     * One coalesced read: its in-flight calls by argument key, and counters of calls that ran the query
+     * and calls that shared one (each shared call is a query saved)
+     */
+    private static final class CoalescedRead<V> {
+        private final SingleFlight<List<Object>, V> flight;
+
+        private CoalescedRead(String endpoint, MeterRegistry meterRegistry) {
+            Counter executed = register(meterRegistry, endpoint, "executed");
+            Counter shared = register(meterRegistry, endpoint, "shared");
+            this.flight = new SingleFlight<>((key, joined) -> (joined ? shared : executed).increment());
+        }
+
+        private V execute(List<Object> arguments, Supplier<V> loader) {
+            return flight.execute(arguments, loader);
+        }
+
+        private static Counter register(MeterRegistry meterRegistry, String endpoint, String outcome) {
+            return Counter.builder("todo_read_coalescing_calls_total")
+                    .description("Dashboard reads by outcome: executed ran the query, shared joined one in flight, "
+                            + "cached reused a fresh statistics snapshot")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Statistics snapshot together with the time it was computed
+     */
+    private static final class StatisticsSnapshot {
+        private final TodoStatistics statistics;
+        private final long computedAtNanos;
+
+        private StatisticsSnapshot(TodoStatistics statistics, long computedAtNanos) {
+            this.statistics = statistics;
+            this.computedAtNanos = computedAtNanos;
+        }
+
+        private boolean isFresh(long freshnessNanos) {
+            return System.nanoTime() - computedAtNanos < freshnessNanos;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangedEvent;
+import com.todoapp.repository.TodoBulkUpdate;
+import com.todoapp.repository.TodoFilter;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Opt-in write-behind for completion toggles. A toggle is acknowledged once its target state is in a
+ * per-id map, so repeated flips of one todo collapse into the last one; the map is flushed periodically
+ * as batched UPDATEs that skip rows already in the target state. Every other API request flushes first
+ * (see WriteBehindBarrierFilter), so reads see buffered toggles and later writes are ordered after them.
+ * A toggle stays in the map until the UPDATE writing it commits, so a request that finds the map empty
+ * cannot overtake a flush still in progress. The barrier only covers this instance's buffer.
+ * What this saves is the UPDATE, its transaction and commit per toggle: the caller still reads the todo once
+ * (a primary-key lookup, batched with concurrent lookups) to answer 404 and return its body.
+ * <p>
+ * Loss window: an acknowledged toggle exists only in this process's memory until the next flush, so a crash,
+ * OOM kill or SIGKILL loses up to {@code flush-interval} of toggles, and everything buffered while flushes
+ * are failing (for example while the database is unreachable). A graceful shutdown flushes what is left.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.write-behind", name = "enabled", havingValue = "true")
+public class TodoCompletionBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoCompletionBuffer.class);
+
+    private final TodoRepository todoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final int maxBatchSize;
+    // Latest requested state per todo id; ConcurrentHashMap stripes its locks across bins
+    private final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+    // Flushes run one at a time so a barrier never returns while another flush still holds toggles
+    private final Object flushLock = new Object();
+    private final Timer flushTimer;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoCompletionBuffer(TodoRepository todoRepository, ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                @Value("${app.write-behind.max-batch-size:500}") int maxBatchSize) {
+        this.todoRepository = todoRepository;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.flushTimer = Timer.builder("todo_write_behind_flush_duration_seconds")
+                .description("Time taken to write all buffered completion toggles")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("todo_write_behind_pending", pending, Map::size)
+                .description("Todos with a completion toggle buffered but not yet written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer a toggle of an existing todo and answer with the todo as it will be once flushed. The version
+     * is left empty because it is only assigned by the flush.
+     */
+    public TodoView toggle(TodoView todo, boolean completed) {
+        pending.put(todo.id(), completed);
+        return new TodoView(todo.id(), todo.title(), todo.description(), completed, todo.createdAt(),
+                todo.updatedAt(), todo.dueDate(), todo.priority(), null);
+    }
+
+    /**
+     * Return once every toggle acknowledged before the call is committed, waiting for a flush already in
+     * progress. Entries leave the map only after their UPDATE commits, so an empty map needs no lock.
+     */
+    public void awaitWritten() {
+        if (!pending.isEmpty()) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.write-behind.flush-interval:PT0.5S}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Flushing buffered completion toggles failed; they stay buffered for the next flush", e);
+        }
+    }
+
+    /**
+     * Write every buffered toggle, returning once they are committed
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long started = System.nanoTime();
+            List<Long> completed = new ArrayList<>();
+            List<Long> reopened = new ArrayList<>();
+            // Entries stay buffered until written, so barriers keep flushing (and waiting) meanwhile
+            pending.forEach((id, state) -> (state ? completed : reopened).add(id));
+            write(completed, true);
+            write(reopened, false);
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void write(List<Long> ids, boolean completed) {
+        TodoChangedEvent.Type type = completed ? TodoChangedEvent.Type.COMPLETED : TodoChangedEvent.Type.REOPENED;
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<Long> slice = ids.subList(from, Math.min(ids.size(), from + maxBatchSize));
+            // A failed slice leaves its toggles and every later one buffered for the next flush
+            List<Todo> written = writeTransaction.execute(status -> todoRepository.updateSlice(slice,
+                    TodoFilter.all(), TodoBulkUpdate.completed(completed), slice.size()));
+            // Drop only toggles still in the state just written; a newer toggle stays for the next flush
+            slice.forEach(id -> pending.remove(id, completed));
+            if (written != null) {
+                written.forEach(todo -> eventPublisher.publishEvent(TodoChangedEvent.of(type, todo)));
+            }
+        }
+    }
+}
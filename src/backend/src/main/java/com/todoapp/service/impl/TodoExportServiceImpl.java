@@ -0,0 +1,73 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.metrics.TodoMetrics;
+import com.todoapp.repository.TodoFilter;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.service.TodoExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * COPY-based implementation of TodoExportService; bytes go from the database connection to the
+ * output stream without creating Todo objects
+ */
+@Service
+public class TodoExportServiceImpl implements TodoExportService {
+
+    private final TodoRepository todoRepository;
+    private final TodoMetrics todoMetrics;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoExportServiceImpl(TodoRepository todoRepository, TodoMetrics todoMetrics,
+                                 PlatformTransactionManager transactionManager) {
+        this.todoRepository = todoRepository;
+        this.todoMetrics = todoMetrics;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long exportTodos(ExportFormat format, ExportView view, Boolean completed, Todo.Priority priority,
+                            OutputStream out) {
+        TodoFilter filter = filterFor(view, completed, priority, LocalDateTime.now());
+        long started = System.nanoTime();
+        Long rows = readOnlyTransaction.execute(status -> format == ExportFormat.CSV
+                ? todoRepository.copyCsv(filter, out)
+                : todoRepository.copyNdjson(filter, out));
+        long exported = rows != null ? rows : 0;
+        todoMetrics.recordExport(exported, System.nanoTime() - started);
+        return exported;
+    }
+
+    private static TodoFilter filterFor(ExportView view, Boolean completed, Todo.Priority priority,
+                                        LocalDateTime now) {
+        if (completed != null) {
+            return TodoFilter.byStatus(completed);
+        }
+        if (priority != null) {
+            return TodoFilter.byPriority(priority);
+        }
+        switch (view) {
+            case OVERDUE:
+                return TodoFilter.overdue(now);
+            case DUE_TODAY:
+                return TodoFilter.dueToday(now);
+            case DUE_THIS_WEEK:
+                return TodoFilter.dueThisWeek(now);
+            case HIGH_PRIORITY:
+                return TodoFilter.highPriority();
+            default:
+                return TodoFilter.all();
+        }
+    }
+}
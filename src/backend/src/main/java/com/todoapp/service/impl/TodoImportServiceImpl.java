@@ -0,0 +1,370 @@
+package com.todoapp.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangedEvent;
+import com.todoapp.metrics.TodoMetrics;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.service.TodoImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * COPY-based implementation of TodoImportService.
+ * Only one chunk of rows is held in memory at a time; each chunk is committed on its own,
+ * so a failure part-way keeps the rows of earlier chunks.
+ */
+@Service
+public class TodoImportServiceImpl implements TodoImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoImportServiceImpl.class);
+
+    private final TodoRepository todoRepository;
+    private final Validator validator;
+    private final TodoMetrics todoMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+    private final int historySize;
+    private final Map<String, ImportJob> imports = new LinkedHashMap<>();
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoImportServiceImpl(TodoRepository todoRepository, Validator validator, TodoMetrics todoMetrics,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                 @Value("${app.import.chunk-size:5000}") int chunkSize,
+                                 @Value("${app.import.max-reported-rejections:1000}") int maxReportedRejections,
+                                 @Value("${app.import.history-size:20}") int historySize) {
+        this.todoRepository = todoRepository;
+        this.validator = validator;
+        this.todoMetrics = todoMetrics;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.ndjsonReader = objectMapper.readerFor(ImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvReader = new CsvMapper().readerFor(ImportRow.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+        this.historySize = historySize;
+    }
+
+    @Override
+    public ImportReport importTodos(InputStream body, ImportFormat format) {
+        ImportJob job = register(format);
+        List<Todo> chunk = new ArrayList<>(chunkSize);
+        try {
+            if (format == ImportFormat.CSV) {
+                readCsv(body, job, chunk);
+            } else {
+                readNdjson(body, job, chunk);
+            }
+            flush(job, chunk);
+            job.finish(ImportState.COMPLETED, null);
+        } catch (RuntimeException | IOException e) {
+            logger.error("Import {} failed after {} rows", job.id, job.rowsRead.get(), e);
+            job.finish(ImportState.FAILED, e.getMessage());
+        } finally {
+            todoMetrics.recordImport(System.nanoTime() - job.startedNanos);
+        }
+        return job.toReport();
+    }
+
+    @Override
+    public Optional<ImportReport> getImport(String id) {
+        synchronized (imports) {
+            return Optional.ofNullable(imports.get(id)).map(ImportJob::toReport);
+        }
+    }
+
+    @Override
+    public List<ImportReport> getRecentImports() {
+        List<ImportReport> reports;
+        synchronized (imports) {
+            reports = imports.values().stream().map(ImportJob::toReport).collect(Collectors.toList());
+        }
+        Collections.reverse(reports);
+        return reports;
+    }
+
+    /**
+     * A malformed row (for example one with more fields than the header) is rejected on its own and the
+     * iterator resynchronizes on the next row; an unterminated quote runs to the end of the input and is
+     * rejected as one row. Only an error that leaves the parser where it was ends the import.
+     */
+    private void readCsv(InputStream body, ImportJob job, List<Todo> chunk) throws IOException {
+        try (MappingIterator<ImportRow> rows = csvReader.readValues(body)) {
+            long failedAtOffset = -1;
+            while (true) {
+                long line = rows.getCurrentLocation().getLineNr();
+                ImportRow row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    line = rows.getCurrentLocation().getLineNr();
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    long offset = rows.getCurrentLocation().getCharOffset();
+                    if (offset == failedAtOffset) {
+                        throw e;
+                    }
+                    failedAtOffset = offset;
+                    job.rowsRead.incrementAndGet();
+                    reject(job, line, "Malformed CSV: " + e.getOriginalMessage());
+                    continue;
+                }
+                accept(job, chunk, line, row);
+            }
+        }
+    }
+
+    /**
+     * NDJSON is split on lines first so that one malformed record is rejected on its own
+     * instead of derailing the parser for the rest of the file
+     */
+    private void readNdjson(InputStream body, ImportJob job, List<Todo> chunk) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ImportRow row;
+                try {
+                    row = ndjsonReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    job.rowsRead.incrementAndGet();
+                    reject(job, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                accept(job, chunk, lineNumber, row);
+            }
+        }
+    }
+
+    private void accept(ImportJob job, List<Todo> chunk, long line, ImportRow row) {
+        job.rowsRead.incrementAndGet();
+        Todo todo;
+        try {
+            todo = row.toTodo();
+        } catch (IllegalArgumentException e) {
+            reject(job, line, e.getMessage());
+            return;
+        }
+        // Same constraints as the entity (title 1-255 chars, description up to 1000)
+        String violations = validator.validate(todo).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            reject(job, line, violations);
+            return;
+        }
+        chunk.add(todo);
+        if (chunk.size() >= chunkSize) {
+            flush(job, chunk);
+        }
+    }
+
+    private void flush(ImportJob job, List<Todo> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        writeTransaction.executeWithoutResult(status -> {
+            // The insert trigger stamps rows with the transaction start time; mirror it for the published events
+            LocalDateTime now = todoRepository.currentTransactionTime();
+            for (Todo todo : chunk) {
+                todo.setCreatedAt(now);
+                todo.setUpdatedAt(now);
+            }
+            todoRepository.copyIn(chunk);
+        });
+        long imported = job.rowsImported.addAndGet(chunk.size());
+        todoMetrics.recordImportedRows(chunk.size(), (long) job.rowsPerSecond(imported));
+        for (Todo todo : chunk) {
+            eventPublisher.publishEvent(TodoChangedEvent.of(TodoChangedEvent.Type.CREATED, todo));
+        }
+        chunk.clear();
+    }
+
+    private void reject(ImportJob job, long line, String reason) {
+        job.reject(line, reason, maxReportedRejections);
+        todoMetrics.incrementRejectedRows();
+    }
+
+    private ImportJob register(ImportFormat format) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format);
+        synchronized (imports) {
+            imports.put(job.id, job);
+            Iterator<ImportJob> oldest = imports.values().iterator();
+            while (imports.size() > historySize && oldest.hasNext()) {
+                if (oldest.next().state != ImportState.RUNNING) {
+                    oldest.remove();
+                }
+            }
+        }
+        return job;
+    }
+
+    /**
+     * Mutable progress of one import; read concurrently by status requests
+     */
+    private static final class ImportJob {
+
+        private final String id;
+        private final ImportFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final List<RejectedRow> rejectedRows = new ArrayList<>();
+        private volatile ImportState state = ImportState.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile String failure;
+
+        private ImportJob(String id, ImportFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private void reject(long line, String reason, int maxReported) {
+            rowsRejected.incrementAndGet();
+            synchronized (rejectedRows) {
+                if (rejectedRows.size() < maxReported) {
+                    rejectedRows.add(new RejectedRow(line, reason));
+                }
+            }
+        }
+
+        private void finish(ImportState finalState, String failureMessage) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            failure = failureMessage;
+            state = finalState;
+        }
+
+        private double rowsPerSecond(long imported) {
+            long end = state == ImportState.RUNNING ? System.nanoTime() : finishedNanos;
+            long elapsed = end - startedNanos;
+            return elapsed > 0 ? imported * 1e9 / elapsed : 0.0;
+        }
+
+        private ImportReport toReport() {
+            List<RejectedRow> rejected;
+            synchronized (rejectedRows) {
+                rejected = List.copyOf(rejectedRows);
+            }
+            long imported = rowsImported.get();
+            return new ImportReport(id, format, state, startedAt, finishedAt, rowsRead.get(), imported,
+                    rowsRejected.get(), rowsPerSecond(imported), rejected, failure);
+        }
+    }
+
+    /**
+     * One input record; every value is read as text so type errors are reported per row
+     */
+    static final class ImportRow {
+
+        private String title;
+        private String description;
+        private String completed;
+        private String priority;
+        private String dueDate;
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public void setCompleted(String completed) {
+            this.completed = completed;
+        }
+
+        public void setPriority(String priority) {
+            this.priority = priority;
+        }
+
+        @JsonAlias("due_date")
+        public void setDueDate(String dueDate) {
+            this.dueDate = dueDate;
+        }
+
+        private Todo toTodo() {
+            Todo todo = new Todo(title, blankToNull(description));
+            if (blankToNull(completed) != null) {
+                if (!"true".equalsIgnoreCase(completed) && !"false".equalsIgnoreCase(completed)) {
+                    throw new IllegalArgumentException("Invalid completed value: " + completed);
+                }
+                todo.setCompleted(Boolean.parseBoolean(completed.toLowerCase(Locale.ROOT)));
+            }
+            if (blankToNull(priority) != null) {
+                try {
+                    todo.setPriority(Todo.Priority.valueOf(priority.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid priority: " + priority, e);
+                }
+            }
+            if (blankToNull(dueDate) != null) {
+                try {
+                    todo.setDueDate(LocalDateTime.parse(dueDate.trim()));
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid dueDate: " + dueDate, e);
+                }
+            }
+            return todo;
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value;
+        }
+    }
+}
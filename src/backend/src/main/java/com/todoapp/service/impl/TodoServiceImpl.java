@@ -1,16 +1,56 @@
 package com.todoapp.service.impl;
 
 import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangedEvent;
+import com.todoapp.metrics.TodoMetrics;
+import com.todoapp.pagination.CursorPage;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.pagination.TodoCursor;
+import com.todoapp.pagination.TodoSortField;
+import com.todoapp.repository.RankedTodo;
+import com.todoapp.repository.TodoBulkUpdate;
+import com.todoapp.repository.TodoChangeMarker;
+import com.todoapp.repository.TodoField;
+import com.todoapp.repository.TodoFilter;
+import com.todoapp.repository.TodoPatch;
 import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoStatisticsView;
+import com.todoapp.repository.TodoVersionView;
+import com.todoapp.repository.TodoView;
+import com.todoapp.repository.TodoWriteResult;
+import com.todoapp.repository.TsQueries;
 import com.todoapp.service.TodoService;
+import com.todoapp.service.support.BatchLoader;
+import com.todoapp.service.support.GroupCommitter;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -20,12 +60,62 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 @Service
 public class TodoServiceImpl implements TodoService {
 
+    private static final String SEARCH_RANK_FIELD = "rank";
+
     private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TodoMetrics todoMetrics;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int jdbcBatchSize;
+    private final int bulkStatementSize;
+    private final int maxBulkIds;
+    private final int maxMultiGetIds;
+    // Null when lookup batching is disabled
+    private final BatchLoader<Long, TodoView> todoLookups;
+    // Null when group commit is disabled
+    private final GroupCommitter<Todo> createCommitter;
+    // Null unless write-behind is enabled
+    private final TodoCompletionBuffer completionBuffer;
 
     @Autowired
     @SuppressFBWarnings("EI_EXPOSE_REP2")
-    public TodoServiceImpl(TodoRepository todoRepository) {
+    public TodoServiceImpl(TodoRepository todoRepository, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                           Validator validator, TodoMetrics todoMetrics,
+                           ObjectProvider<TodoCompletionBuffer> completionBuffer,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize,
+                           @Value("${app.bulk.statement-size:500}") int bulkStatementSize,
+                           @Value("${app.bulk.max-ids:10000}") int maxBulkIds,
+                           @Value("${app.multi-get.max-ids:500}") int maxMultiGetIds,
+                           @Value("${app.lookup-batching.enabled:true}") boolean lookupBatching,
+                           @Value("${app.lookup-batching.window:1ms}") Duration lookupBatchWindow,
+                           @Value("${app.lookup-batching.max-size:100}") int maxLookupBatchSize,
+                           @Value("${app.lookup-batching.dispatcher-threads:4}") int lookupDispatcherThreads,
+                           @Value("${app.group-commit.enabled:true}") boolean groupCommit,
+                           @Value("${app.group-commit.max-batch-size:50}") int maxGroupCommitSize,
+                           @Value("${app.group-commit.max-delay:0ms}") Duration groupCommitDelay,
+                           @Value("${app.group-commit.submit-timeout:30s}") Duration groupCommitTimeout) {
         this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.todoMetrics = todoMetrics;
+        this.completionBuffer = completionBuffer.getIfAvailable();
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.bulkStatementSize = bulkStatementSize;
+        this.maxBulkIds = maxBulkIds;
+        this.maxMultiGetIds = maxMultiGetIds;
+        this.todoLookups = lookupBatching ? new BatchLoader<>("todo-lookup-batcher", this::loadTodoBatch,
+                lookupBatchWindow, maxLookupBatchSize, lookupDispatcherThreads, todoMetrics::recordLookupBatch) : null;
+        // Declarative transactions are disabled (see TransactionConfig), so cursors and batches get explicit ones
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.createCommitter = groupCommit ? new GroupCommitter<>("todo-group-commit", this::insertBatch,
+                maxGroupCommitSize, groupCommitDelay, groupCommitTimeout, todoMetrics::recordGroupCommit) : null;
     }
 
     @Override
@@ -40,111 +130,519 @@ public class TodoServiceImpl implements TodoService {
             todo.setPriority(Todo.Priority.MEDIUM);
         }
 
-        return todoRepository.save(todo);
+        if (createCommitter != null) {
+            // Concurrent creates share one transaction and commit; the todo gets its id when that commits
+            createCommitter.submit(todo);
+        } else {
+            insertBatch(List.of(todo));
+        }
+        eventPublisher.publishEvent(TodoChangedEvent.of(TodoChangedEvent.Type.CREATED, todo));
+        return todo;
+    }
+
+    /**
+     * Insert a group of new todos in one transaction; ids come from pooled-lo blocks, so the inserts go out
+     * as JDBC batches that the driver rewrites into multi-row statements
+     */
+    private void insertBatch(List<Todo> todos) {
+        writeTransaction.executeWithoutResult(status -> {
+            stampCreation(todos);
+            for (Todo todo : todos) {
+                // Also clears an id assigned by a failed attempt before the group is retried one by one
+                todo.setId(null);
+                entityManager.persist(todo);
+            }
+        });
+    }
+
+    /**
+     * Set the timestamps the insert trigger will write, so returned todos match the stored rows without a read-back.
+     * The trigger uses the transaction start time, so one query covers every insert of the transaction.
+     */
+    private void stampCreation(List<Todo> todos) {
+        LocalDateTime now = todoRepository.currentTransactionTime();
+        for (Todo todo : todos) {
+            todo.setCreatedAt(now);
+            todo.setUpdatedAt(now);
+        }
+    }
+
+    @Override
+    public BatchResult createTodos(List<Todo> todos) {
+        List<ItemError> errors = new ArrayList<>();
+        List<Todo> valid = new ArrayList<>(todos.size());
+        for (int i = 0; i < todos.size(); i++) {
+            Todo todo = todos.get(i);
+            if (todo == null) {
+                errors.add(new ItemError(i, null, "Todo is required"));
+                continue;
+            }
+            int before = errors.size();
+            for (ConstraintViolation<Todo> violation : validator.validate(todo)) {
+                errors.add(new ItemError(i, violation.getPropertyPath().toString(), violation.getMessage()));
+            }
+            if (errors.size() == before) {
+                valid.add(todo);
+            }
+        }
+
+        long started = System.nanoTime();
+        writeTransaction.executeWithoutResult(status -> {
+            stampCreation(valid);
+            for (int i = 0; i < valid.size(); i++) {
+                Todo todo = valid.get(i);
+                todo.setId(null);
+                if (todo.getPriority() == null) {
+                    todo.setPriority(Todo.Priority.MEDIUM);
+                }
+                entityManager.persist(todo);
+                // Flush one JDBC batch at a time and keep the persistence context small
+                if ((i + 1) % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        todoMetrics.recordBatchInsert(valid.size(), System.nanoTime() - started);
+
+        List<Long> createdIds = new ArrayList<>(valid.size());
+        for (Todo todo : valid) {
+            createdIds.add(todo.getId());
+            eventPublisher.publishEvent(TodoChangedEvent.of(TodoChangedEvent.Type.CREATED, todo));
+        }
+        return new BatchResult(createdIds, errors);
+    }
+
+    @Override
+    public BulkResult bulkMutate(BulkMutation mutation) {
+        BulkAction action = mutation.getAction();
+        if (action == null) {
+            throw new IllegalArgumentException("Bulk action is required");
+        }
+        List<Long> ids = mutation.getIds();
+        TodoFilter filter = toFilter(mutation.getFilter());
+        if ((ids == null) == (filter == null)) {
+            throw new IllegalArgumentException("Select todos with either ids or a filter");
+        }
+        if (filter != null && filter.isUnrestricted()) {
+            throw new IllegalArgumentException("Bulk filter must restrict at least one field");
+        }
+        if (ids != null && ids.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " ids per bulk request");
+        }
+        TodoBulkUpdate update = toUpdate(mutation);
+
+        // Every statement touches at most bulkStatementSize rows and commits on its own,
+        // so row locks are never held for the whole request
+        List<Long> affected = new ArrayList<>();
+        int statements = 0;
+        if (ids != null) {
+            List<Long> distinctIds = ids.stream().distinct().toList();
+            for (int from = 0; from < distinctIds.size(); from += bulkStatementSize) {
+                List<Long> slice = distinctIds.subList(from, Math.min(from + bulkStatementSize, distinctIds.size()));
+                applySlice(action, update, slice, TodoFilter.all(), slice.size(), affected);
+                statements++;
+            }
+        } else {
+            int changed;
+            do {
+                changed = applySlice(action, update, null, filter, bulkStatementSize, affected);
+                statements++;
+            } while (changed == bulkStatementSize);
+        }
+        return new BulkResult(action, affected, statements);
+    }
+
+    private int applySlice(BulkAction action, TodoBulkUpdate update, List<Long> ids, TodoFilter filter,
+                           int limit, List<Long> affected) {
+        if (action == BulkAction.DELETE) {
+            List<Long> deleted = writeTransaction.execute(status -> todoRepository.deleteSlice(ids, filter, limit));
+            if (deleted == null) {
+                return 0;
+            }
+            for (Long id : deleted) {
+                affected.add(id);
+                eventPublisher.publishEvent(TodoChangedEvent.deleted(id));
+            }
+            return deleted.size();
+        }
+        List<Todo> updated = writeTransaction.execute(
+                status -> todoRepository.updateSlice(ids, filter, update, limit));
+        if (updated == null) {
+            return 0;
+        }
+        TodoChangedEvent.Type type = action == BulkAction.COMPLETE ? TodoChangedEvent.Type.COMPLETED
+                : action == BulkAction.REOPEN ? TodoChangedEvent.Type.REOPENED
+                : TodoChangedEvent.Type.UPDATED;
+        for (Todo todo : updated) {
+            affected.add(todo.getId());
+            eventPublisher.publishEvent(TodoChangedEvent.of(type, todo));
+        }
+        return updated.size();
+    }
+
+    private static TodoFilter toFilter(BulkFilter filter) {
+        if (filter == null) {
+            return null;
+        }
+        Set<Todo.Priority> priorities = filter.getPriority() != null ? Set.of(filter.getPriority()) : Set.of();
+        return TodoFilter.of(filter.getCompleted(), priorities, filter.getDueFrom(), filter.getDueBefore());
+    }
+
+    private static TodoBulkUpdate toUpdate(BulkMutation mutation) {
+        switch (mutation.getAction()) {
+            case COMPLETE:
+                return TodoBulkUpdate.completed(true);
+            case REOPEN:
+                return TodoBulkUpdate.completed(false);
+            case RESCHEDULE:
+                if (mutation.getDueDate() == null) {
+                    throw new IllegalArgumentException("dueDate is required to reschedule");
+                }
+                return TodoBulkUpdate.dueDate(mutation.getDueDate());
+            case REPRIORITIZE:
+                if (mutation.getPriority() == null) {
+                    throw new IllegalArgumentException("priority is required to reprioritize");
+                }
+                return TodoBulkUpdate.priority(mutation.getPriority());
+            default:
+                return null;
+        }
     }
 
     @Override
-    public Page<Todo> getAllTodos(Pageable pageable) {
-        return todoRepository.findAll(pageable);
+    public Page<TodoView> getAllTodos(Pageable pageable) {
+        return todoRepository.findAllViews(pageable);
+    }
+
+    @Override
+    public CursorPage<TodoView> getAllTodos(CursorRequest request) {
+        return findPage(TodoFilter.all(), request);
+    }
+
+    @Override
+    public List<TodoView> getAllTodos() {
+        return todoRepository.findAllViews();
+    }
+
+    @Override
+    public CursorPage<Map<String, Object>> getTodoFields(Boolean completed, Todo.Priority priority,
+                                                         Set<TodoField> fields, CursorRequest request) {
+        // The sort key is needed for the next cursor even when the client did not ask for it
+        TodoSortField sortField = request.getSortField();
+        TodoField sortKey = TodoField.fromProperty(sortField.getProperty());
+        Set<TodoField> selected = EnumSet.copyOf(fields);
+        selected.add(sortKey);
+
+        List<Map<String, Object>> rows = todoRepository.findFieldSlice(filterOf(completed, priority), selected,
+                request, 0, request.getSize() + 1);
+        String nextCursor = null;
+        if (rows.size() > request.getSize()) {
+            rows = rows.subList(0, request.getSize());
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            Object key = sortField == TodoSortField.ID ? null : last.get(sortKey.getProperty());
+            nextCursor = new TodoCursor(sortField.getProperty(), request.isDescending(),
+                    key != null ? key.toString() : null, (Long) last.get(TodoField.ID.getProperty())).encode();
+        }
+        if (!fields.contains(sortKey)) {
+            rows.forEach(row -> row.remove(sortKey.getProperty()));
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    @Override
+    public Page<Map<String, Object>> getTodoFields(Set<TodoField> fields, CursorRequest order, int page) {
+        List<Map<String, Object>> rows = todoRepository.findFieldSlice(TodoFilter.all(), fields, order,
+                (long) page * order.getSize(), order.getSize());
+        Sort sort = Sort.by(order.isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC,
+                order.getSortField().getProperty());
+        return new PageImpl<>(rows, PageRequest.of(page, order.getSize(), sort), todoRepository.count());
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllTodoFields(Boolean completed, Todo.Priority priority,
+                                                      Set<TodoField> fields) {
+        return todoRepository.findFieldSlice(filterOf(completed, priority), fields,
+                CursorRequest.of("id", "desc", null, Integer.MAX_VALUE), 0, Integer.MAX_VALUE);
+    }
+
+    private static TodoFilter filterOf(Boolean completed, Todo.Priority priority) {
+        return TodoFilter.of(completed, priority != null ? Set.of(priority) : null, null, null);
+    }
+
+    @Override
+    public void streamAllTodos(Consumer<Todo> consumer) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Todo> todos = todoRepository.streamAll()) {
+                todos.forEach(todo -> {
+                    consumer.accept(todo);
+                    // Evict once written so the persistence context does not grow with the table
+                    entityManager.detach(todo);
+                });
+            }
+        });
+    }
+
+    @Override
+    public Optional<TodoView> getTodoById(Long id) {
+        if (todoLookups == null) {
+            return todoRepository.findViewById(id);
+        }
+        // Concurrent lookups within the batching window share one ANY(ids) query and one connection
+        return Optional.ofNullable(todoLookups.load(id));
+    }
+
+    private Map<Long, TodoView> loadTodoBatch(Set<Long> ids) {
+        Map<Long, TodoView> todos = new HashMap<>();
+        for (TodoView todo : todoRepository.findViewsByIds(ids)) {
+            todos.put(todo.id(), todo);
+        }
+        return todos;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (createCommitter != null) {
+            createCommitter.shutdown();
+        }
+        if (todoLookups != null) {
+            todoLookups.shutdown();
+        }
     }
 
     @Override
-    public List<Todo> getAllTodos() {
-        return todoRepository.findAll();
+    public MultiGetResult getTodosByIds(List<Long> ids) {
+        if (ids.size() > maxMultiGetIds) {
+            throw new IllegalArgumentException("At most " + maxMultiGetIds + " ids per lookup");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Todo ids must not be null");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.isEmpty()) {
+            return new MultiGetResult(List.of(), List.of());
+        }
+
+        Map<Long, TodoView> found = loadTodoBatch(requested);
+        List<TodoView> todos = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            TodoView todo = found.get(id);
+            if (todo != null) {
+                todos.add(todo);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetResult(todos, missingIds);
     }
 
     @Override
-    public Optional<Todo> getTodoById(Long id) {
-        return todoRepository.findById(id);
+    public Optional<TodoVersionView> getTodoVersion(Long id) {
+        return todoRepository.findVersionById(id);
     }
 
     @Override
-    public Todo updateTodo(Long id, Todo todoDetails) {
-        Todo existingTodo = todoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Todo not found with id: " + id));
+    public TodoChangeMarker getChangeMarker() {
+        return todoRepository.findChangeMarker();
+    }
 
+    @Override
+    public TodoWriteResult updateTodo(Long id, Todo todoDetails, Long expectedVersion) {
         // Update fields if provided
+        TodoPatch patch = TodoPatch.empty();
         if (todoDetails.getTitle() != null) {
-            existingTodo.setTitle(todoDetails.getTitle());
+            patch = patch.withTitle(todoDetails.getTitle());
         }
         if (todoDetails.getDescription() != null) {
-            existingTodo.setDescription(todoDetails.getDescription());
+            patch = patch.withDescription(todoDetails.getDescription());
         }
         if (todoDetails.getDueDate() != null) {
-            existingTodo.setDueDate(todoDetails.getDueDate());
+            patch = patch.withDueDate(todoDetails.getDueDate());
         }
         if (todoDetails.getPriority() != null) {
-            existingTodo.setPriority(todoDetails.getPriority());
+            patch = patch.withPriority(todoDetails.getPriority());
         }
+        return applyPatch(id, patch, expectedVersion, TodoChangedEvent.Type.UPDATED);
+    }
+
+    @Override
+    public TodoWriteResult patchTodo(Long id, TodoPatch patch, Long expectedVersion) {
+        Map<String, Object> columns = patch.getColumns();
+        if (columns.containsKey("title")) {
+            validateProperty("title", columns.get("title"));
+        }
+        if (columns.containsKey("description")) {
+            validateProperty("description", columns.get("description"));
+        }
+        return applyPatch(id, patch, expectedVersion, TodoChangedEvent.Type.UPDATED);
+    }
+
+    private void validateProperty(String property, Object value) {
+        Set<ConstraintViolation<Todo>> violations = validator.validateValue(Todo.class, property, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.iterator().next().getMessage());
+        }
+    }
 
-        return todoRepository.save(existingTodo);
+    /**
+     * One UPDATE ... RETURNING round trip; a missing row or a stale version shows up in the statement result,
+     * not a prior SELECT
+     */
+    private TodoWriteResult applyPatch(Long id, TodoPatch patch, Long expectedVersion, TodoChangedEvent.Type type) {
+        TodoWriteResult result = writeTransaction.execute(status -> todoRepository.patch(id, patch, expectedVersion));
+        if (result == null) {
+            return TodoWriteResult.notFound();
+        }
+        recordConditionalWrite(expectedVersion, result);
+        if (!patch.isEmpty()) {
+            result.getTodo().ifPresent(todo -> eventPublisher.publishEvent(TodoChangedEvent.of(type, todo)));
+        }
+        return result;
     }
 
     @Override
-    public void deleteTodo(Long id) {
-        if (!todoRepository.existsById(id)) {
-            throw new RuntimeException("Todo not found with id: " + id);
+    public TodoWriteResult deleteTodo(Long id, Long expectedVersion) {
+        TodoWriteResult result;
+        if (expectedVersion == null) {
+            result = todoRepository.deleteTodoById(id) == 0 ? TodoWriteResult.notFound() : TodoWriteResult.deleted();
+        } else {
+            TodoWriteResult deleted = writeTransaction.execute(
+                    status -> todoRepository.deleteIfVersion(id, expectedVersion));
+            result = deleted == null ? TodoWriteResult.notFound() : deleted;
+            recordConditionalWrite(expectedVersion, result);
+        }
+        if (result.isApplied()) {
+            eventPublisher.publishEvent(TodoChangedEvent.deleted(id));
+        }
+        return result;
+    }
+
+    private void recordConditionalWrite(Long expectedVersion, TodoWriteResult result) {
+        if (expectedVersion == null) {
+            return;
+        }
+        if (result.isApplied()) {
+            todoMetrics.incrementConditionalWritesApplied();
+        } else if (result.getStatus() == TodoWriteResult.Status.VERSION_MISMATCH) {
+            todoMetrics.incrementConditionalWriteConflicts();
         }
-        todoRepository.deleteById(id);
     }
 
     @Override
-    public Todo markAsCompleted(Long id) {
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Todo not found with id: " + id));
-        
-        todo.setCompleted(true);
-        return todoRepository.save(todo);
+    public Optional<TodoView> markAsCompleted(Long id) {
+        if (completionBuffer != null) {
+            return getTodoById(id).map(todo -> completionBuffer.toggle(todo, true));
+        }
+        return applyPatch(id, TodoPatch.empty().withCompleted(true), null, TodoChangedEvent.Type.COMPLETED).getTodo()
+                .map(TodoView::of);
     }
 
     @Override
-    public Todo markAsIncomplete(Long id) {
-        Todo todo = todoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Todo not found with id: " + id));
-        
-        todo.setCompleted(false);
-        return todoRepository.save(todo);
+    public Optional<TodoView> markAsIncomplete(Long id) {
+        if (completionBuffer != null) {
+            return getTodoById(id).map(todo -> completionBuffer.toggle(todo, false));
+        }
+        return applyPatch(id, TodoPatch.empty().withCompleted(false), null, TodoChangedEvent.Type.REOPENED)
+                .getTodo()
+                .map(TodoView::of);
     }
 
     @Override
-    public List<Todo> getTodosByStatus(boolean completed) {
+    public List<TodoView> getTodosByStatus(boolean completed) {
         return todoRepository.findByCompleted(completed);
     }
 
     @Override
-    public List<Todo> getTodosByPriority(Todo.Priority priority) {
+    public CursorPage<TodoView> getTodosByStatus(boolean completed, CursorRequest request) {
+        return findPage(TodoFilter.byStatus(completed), request);
+    }
+
+    @Override
+    public List<TodoView> getTodosByPriority(Todo.Priority priority) {
         return todoRepository.findByPriority(priority);
     }
 
     @Override
-    public List<Todo> searchTodos(String searchTerm) {
+    public CursorPage<TodoView> getTodosByPriority(Todo.Priority priority, CursorRequest request) {
+        return findPage(TodoFilter.byPriority(priority), request);
+    }
+
+    @Override
+    public List<TodoView> searchTodos(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllTodos();
         }
 
-        String trimmedTerm = searchTerm.trim();
-        List<Todo> titleResults = todoRepository.findByTitleContainingIgnoreCase(trimmedTerm);
-        List<Todo> descriptionResults = todoRepository.findByDescriptionContainingIgnoreCase(trimmedTerm);
+        String tsQuery = TsQueries.prefixQuery(searchTerm);
+        if (tsQuery == null) {
+            return List.of();
+        }
+        return todoRepository.searchSlice(tsQuery, null, Integer.MAX_VALUE).stream().map(RankedTodo::getTodo).toList();
+    }
 
-        // Combine and remove duplicates
-        titleResults.addAll(descriptionResults);
-        return titleResults.stream()
-                .distinct()
-                .toList();
+    @Override
+    public List<TodoView> fuzzySearchTodos(String searchTerm, double similarityThreshold, int limit) {
+        if (similarityThreshold < 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("Similarity threshold must be between 0 and 1");
+        }
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return List.of();
+        }
+
+        String term = searchTerm.trim();
+        return readOnlyTransaction.execute(status -> todoRepository.fuzzySearch(term, similarityThreshold, limit));
     }
 
     @Override
-    public List<Todo> getOverdueTodos() {
+    public CursorPage<TodoView> searchTodos(String searchTerm, String cursor, int size) {
+        String tsQuery = TsQueries.prefixQuery(searchTerm);
+        if (tsQuery == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        TodoCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = TodoCursor.decode(cursor);
+            if (!SEARCH_RANK_FIELD.equals(after.getField()) || after.getSortKey() == null) {
+                throw new IllegalArgumentException("Cursor was not produced by a search");
+            }
+        }
+
+        List<RankedTodo> hits = todoRepository.searchSlice(tsQuery, after, size + 1);
+        List<TodoView> content = hits.stream().limit(size).map(RankedTodo::getTodo).toList();
+        if (hits.size() <= size) {
+            return new CursorPage<>(content, null);
+        }
+
+        RankedTodo last = hits.get(size - 1);
+        TodoCursor next = new TodoCursor(SEARCH_RANK_FIELD, true, Float.toString(last.getRank()),
+                last.getTodo().id());
+        return new CursorPage<>(content, next.encode());
+    }
+
+    @Override
+    public List<TodoView> getOverdueTodos() {
         return todoRepository.findOverdueTodos(LocalDateTime.now());
     }
 
     @Override
-    public List<Todo> getTodosDueToday() {
+    public CursorPage<TodoView> getOverdueTodos(CursorRequest request) {
+        return findPage(TodoFilter.overdue(LocalDateTime.now()), request);
+    }
+
+    @Override
+    public List<TodoView> getTodosDueToday() {
         return todoRepository.findTodosDueToday(LocalDateTime.now());
     }
 
     @Override
-    public List<Todo> getTodosDueThisWeek() {
+    public CursorPage<TodoView> getTodosDueToday(CursorRequest request) {
+        return findPage(TodoFilter.dueToday(LocalDateTime.now()), request);
+    }
+
+    @Override
+    public List<TodoView> getTodosDueThisWeek() {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime startOfWeek = now.toLocalDate().atStartOfDay();
         LocalDateTime endOfWeek = startOfWeek.plusDays(7);
@@ -153,26 +651,56 @@ public class TodoServiceImpl implements TodoService {
     }
 
     @Override
-    public List<Todo> getHighPriorityIncompleteTodos() {
+    public CursorPage<TodoView> getTodosDueThisWeek(CursorRequest request) {
+        return findPage(TodoFilter.dueThisWeek(LocalDateTime.now()), request);
+    }
+
+    @Override
+    public List<TodoView> getHighPriorityIncompleteTodos() {
         return todoRepository.findHighPriorityIncompleteTodos();
     }
 
     @Override
-    public TodoStatistics getTodoStatistics() {
-        long totalTodos = todoRepository.count();
-        long completedTodos = todoRepository.countByCompleted(true);
-        long incompleteTodos = todoRepository.countByCompleted(false);
-        long overdueTodos = getOverdueTodos().size();
-        long highPriorityTodos = todoRepository.countByPriority(Todo.Priority.HIGH) + 
-                                todoRepository.countByPriority(Todo.Priority.URGENT);
+    public CursorPage<TodoView> getHighPriorityIncompleteTodos(CursorRequest request) {
+        return findPage(TodoFilter.highPriority(), request);
+    }
 
-        return new TodoStatistics(totalTodos, completedTodos, incompleteTodos, overdueTodos,
-                                highPriorityTodos);
+    @Override
+    public TodoStatistics getTodoStatistics() {
+        // Concurrent pollers are coalesced by CoalescingTodoService; every call here runs the query
+        TodoStatisticsView view = todoRepository.computeStatistics(LocalDateTime.now());
+        return new TodoStatistics(view.getTotalTodos(), view.getCompletedTodos(),
+                view.getIncompleteTodos(), view.getOverdueTodos(), view.getHighPriorityTodos());
     }
 
     @Override
     public void cleanupOldCompletedTodos(int daysToKeep) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
-        todoRepository.deleteOldCompletedTodos(cutoffDate);
+        // Bounded statements like bulk deletes; every purged id is published so indexes and feeds drop it
+        List<Long> deleted;
+        do {
+            deleted = writeTransaction.execute(
+                    status -> todoRepository.deleteCompletedBefore(daysToKeep, bulkStatementSize));
+            if (deleted == null) {
+                return;
+            }
+            deleted.forEach(id -> eventPublisher.publishEvent(TodoChangedEvent.deleted(id)));
+        } while (deleted.size() == bulkStatementSize);
+    }
+
+    /**
+     * Fetch one keyset page, reading a single extra row to detect whether another page exists
+     */
+    private CursorPage<TodoView> findPage(TodoFilter filter, CursorRequest request) {
+        List<TodoView> rows = todoRepository.findSlice(filter, request, request.getSize() + 1);
+        if (rows.size() <= request.getSize()) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<TodoView> content = rows.subList(0, request.getSize());
+        TodoView last = content.get(content.size() - 1);
+        TodoSortField sortField = request.getSortField();
+        TodoCursor next = new TodoCursor(sortField.getProperty(), request.isDescending(),
+                sortField.sortKeyOf(last), last.id());
+        return new CursorPage<>(content, next.encode());
     }
 }
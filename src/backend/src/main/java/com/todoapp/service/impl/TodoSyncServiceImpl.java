@@ -0,0 +1,84 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.pagination.ChangeToken;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoView;
+import com.todoapp.service.TodoSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Watermark-based implementation of TodoSyncService over updated_at and the todo_tombstones deletion log.
+ * All times come from the database clock in UTC: triggers stamp updated_at on every insert and update and
+ * deleted_at on every delete, so backend pod clocks and time zones never reach the watermark.
+ */
+@Service
+public class TodoSyncServiceImpl implements TodoSyncService {
+
+    private final TodoRepository todoRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration maxCommitLag;
+    private final Duration tombstoneRetention;
+    private final int pageSize;
+
+    @Autowired
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public TodoSyncServiceImpl(TodoRepository todoRepository, PlatformTransactionManager transactionManager,
+                               @Value("${app.sync.max-commit-lag:5s}") Duration maxCommitLag,
+                               @Value("${app.sync.tombstone-retention:7d}") Duration tombstoneRetention,
+                               @Value("${app.sync.page-size:1000}") int pageSize) {
+        this.todoRepository = todoRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxCommitLag = maxCommitLag;
+        this.tombstoneRetention = tombstoneRetention;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public ChangeSet getChangesSince(String token) {
+        // No token starts a snapshot: a traversal from no watermark at all
+        ChangeToken since = token != null ? ChangeToken.decode(token) : new ChangeToken(null);
+        LocalDateTime watermark = since.getWatermark();
+        return readOnlyTransaction.execute(status -> {
+            // Read the clock before the rows: anything committed later is stamped no earlier than
+            // now - maxCommitLag, so a watermark clamped to that point never skips a late commit.
+            // A paged traversal keeps the target its first page computed for the same reason.
+            LocalDateTime now = todoRepository.currentDatabaseTime();
+            LocalDateTime target = since.isPage() ? since.getTarget() : now.minus(maxCommitLag);
+            if (watermark != null && watermark.isBefore(now.minus(tombstoneRetention))) {
+                throw new ChangeTokenExpiredException("Change token is older than the tombstone retention");
+            }
+            List<TodoView> changed = todoRepository.findChangedSlice(watermark, since.getAfterUpdatedAt(),
+                    since.getAfterId(), pageSize + 1);
+            if (changed.size() > pageSize) {
+                changed = changed.subList(0, pageSize);
+                TodoView last = changed.get(pageSize - 1);
+                return new ChangeSet(changed, List.of(),
+                        ChangeToken.page(watermark, target, last.updatedAt(), last.id()).encode(), true);
+            }
+            List<Long> deleted = watermark != null ? todoRepository.findDeletedSince(watermark) : List.of();
+            LocalDateTime next = watermark != null && watermark.isAfter(target) ? watermark : target;
+            return new ChangeSet(changed, deleted, new ChangeToken(next).encode(), false);
+        });
+    }
+
+    @Override
+    public String currentToken() {
+        return new ChangeToken(todoRepository.currentDatabaseTime().minus(maxCommitLag)).encode();
+    }
+
+    @Override
+    public int pruneTombstones() {
+        return todoRepository.pruneTombstones(tombstoneRetention.toSeconds());
+    }
+}
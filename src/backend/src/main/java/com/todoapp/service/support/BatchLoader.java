@@ -0,0 +1,147 @@
+package com.todoapp.service.support;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Merges single-key loads that arrive close together into one batch load, in the style of DataLoader.
+ * The first key opens a batch that is dispatched once the window passes or the batch is full, whichever
+ * comes first; every caller waits for its own key's value. Concurrent loads of the same key share one slot.
+ * Keys the batch function leaves out of its result load as null. On shutdown further loads are rejected
+ * and the batch still accepting keys is loaded on the shutting-down thread, so no caller is left waiting.
+ */
+public class BatchLoader<K, V> {
+
+    /**
+     * Told about every dispatched batch: its size and how long its oldest key waited to be dispatched
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onDispatch(int size, long waitNanos);
+    }
+
+    private static final long SHUTDOWN_GRACE_SECONDS = 10;
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor dispatcher;
+    private final Object lock = new Object();
+    // The batch still accepting keys, if any
+    private Batch open;
+    private boolean closed;
+
+    public BatchLoader(String name, Function<Set<K>, Map<K, V>> batchFunction, Duration window, int maxBatchSize,
+                       int dispatcherThreads, Listener listener) {
+        this.batchFunction = batchFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.listener = listener;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = new ScheduledThreadPoolExecutor(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Shutdown loads the open batch itself, so window timers still pending then have nothing left to do
+        this.dispatcher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Load one key as part of the next batch, blocking until that batch has been loaded
+     */
+    public V load(K key) {
+        CompletableFuture<V> call;
+        Batch full = null;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Batch loader is shut down");
+            }
+            if (open == null) {
+                Batch batch = new Batch();
+                open = batch;
+                dispatcher.schedule(() -> dispatchIfOpen(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            call = open.calls.computeIfAbsent(key, ignored -> new CompletableFuture<>());
+            if (open.calls.size() >= maxBatchSize) {
+                full = open;
+                open = null;
+            }
+        }
+        // A full batch is loaded by the caller that filled it rather than waiting for the window
+        if (full != null) {
+            full.dispatch();
+        }
+        return await(call);
+    }
+
+    /**
+     * Reject further loads, load the open batch and wait briefly for batches already dispatching
+     */
+    public void shutdown() {
+        Batch pending;
+        synchronized (lock) {
+            closed = true;
+            pending = open;
+            open = null;
+        }
+        if (pending != null) {
+            pending.dispatch();
+        }
+        dispatcher.shutdown();
+        try {
+            if (!dispatcher.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                dispatcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            dispatcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchIfOpen(Batch batch) {
+        synchronized (lock) {
+            if (open != batch) {
+                return;
+            }
+            open = null;
+        }
+        batch.dispatch();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private final class Batch {
+        private final Map<K, CompletableFuture<V>> calls = new LinkedHashMap<>();
+        private final long openedAtNanos = System.nanoTime();
+
+        private void dispatch() {
+            try {
+                listener.onDispatch(calls.size(), System.nanoTime() - openedAtNanos);
+                Map<K, V> values = batchFunction.apply(calls.keySet());
+                calls.forEach((key, call) -> call.complete(values.get(key)));
+            } catch (Throwable e) {
+                // Anything thrown must reach the callers; a dispatcher task that dies silently strands them
+                calls.values().forEach(call -> call.completeExceptionally(e));
+            }
+        }
+    }
+}
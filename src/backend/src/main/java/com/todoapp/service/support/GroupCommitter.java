@@ -0,0 +1,187 @@
+package com.todoapp.service.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Group commit: concurrent submitters hand their items to one writer thread, which writes them in batches
+ * so a single transaction and commit serve many callers. The queue is lock-free for submitters. A batch is
+ * written once it is full or once its oldest item has waited {@code maxDelay}; with a zero delay the writer
+ * takes whatever queued up while it was busy. If a batch fails, its items are retried one at a time so
+ * one bad item only fails its own caller; anything else thrown while writing fails the batch's callers and
+ * leaves the writer running. Callers wait at most {@code submitTimeout}. Once shut down, submits are
+ * rejected and whatever is still queued is written, or failed if the writer does not finish in time.
+ */
+public final class GroupCommitter<T> {
+
+    /**
+     * Told about every written batch: its size and how long writing it took
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onCommit(int size, long durationNanos);
+    }
+
+    private final Queue<Pending<T>> queue = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> batchWriter;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Duration submitTimeout;
+    private final Listener listener;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public GroupCommitter(String name, Consumer<List<T>> batchWriter, int maxBatchSize, Duration maxDelay,
+                          Duration submitTimeout, Listener listener) {
+        this.batchWriter = batchWriter;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.submitTimeout = submitTimeout;
+        this.listener = listener;
+        this.writer = new Thread(this::run, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue the item and block until the batch containing it has been committed.
+     * Throws {@link IllegalStateException} when shut down, or on timeout; a timed-out item that the writer
+     * had not yet taken is withdrawn, otherwise its batch may still commit.
+     */
+    public void submit(T item) {
+        if (!running) {
+            throw new IllegalStateException("Group committer is shut down");
+        }
+        Pending<T> pending = new Pending<>(item);
+        queue.add(pending);
+        // A shutdown that raced this submit may have let the writer exit without seeing the item
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("Group committer is shut down");
+        }
+        LockSupport.unpark(writer);
+        try {
+            pending.committed.get(submitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            boolean withdrawn = queue.remove(pending);
+            throw new IllegalStateException("Timed out after " + submitTimeout + " waiting for group commit"
+                    + (withdrawn ? "; the item was not written" : "; its batch may still commit"), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new IllegalStateException("Interrupted waiting for group commit", e);
+        }
+    }
+
+    /**
+     * Reject further submits and wait up to the submit timeout for queued items to be written;
+     * any still queued after that are failed
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(submitTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueued(new IllegalStateException("Group committer is shut down"));
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            Pending<T> first = queue.poll();
+            if (first == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            batch.add(first);
+            try {
+                fill(batch, first.queuedAtNanos + maxDelayNanos);
+                write(batch);
+            } catch (Throwable e) {
+                // Callers already completed keep their outcome; the rest fail instead of waiting forever
+                batch.forEach(pending -> pending.committed.completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void failQueued(RuntimeException cause) {
+        Pending<T> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.committed.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Take queued items until the batch is full or the deadline passes
+     */
+    private void fill(List<Pending<T>> batch, long deadlineNanos) {
+        while (batch.size() < maxBatchSize) {
+            Pending<T> next = queue.poll();
+            if (next != null) {
+                batch.add(next);
+                continue;
+            }
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0 || !running) {
+                return;
+            }
+            LockSupport.parkNanos(this, remainingNanos);
+        }
+    }
+
+    private void write(List<Pending<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        batch.forEach(pending -> items.add(pending.item));
+        long started = System.nanoTime();
+        try {
+            batchWriter.accept(items);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).committed.completeExceptionally(e);
+                return;
+            }
+            batch.forEach(this::writeAlone);
+            return;
+        }
+        long durationNanos = System.nanoTime() - started;
+        batch.forEach(pending -> pending.committed.complete(null));
+        listener.onCommit(batch.size(), durationNanos);
+    }
+
+    private void writeAlone(Pending<T> pending) {
+        try {
+            batchWriter.accept(List.of(pending.item));
+            pending.committed.complete(null);
+        } catch (RuntimeException e) {
+            pending.committed.completeExceptionally(e);
+        }
+    }
+
+    private static final class Pending<T> {
+        private final T item;
+        private final long queuedAtNanos = System.nanoTime();
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        private Pending(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.todoapp.service.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one in-flight computation.
+ * The first caller runs the loader; callers arriving while it runs wait for and share its result.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Told about every call: its key and whether it shared a computation another caller started
+     */
+    @FunctionalInterface
+    public interface Listener<K> {
+        void onCall(K key, boolean shared);
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Listener<K> listener;
+
+    public SingleFlight() {
+        this((key, shared) -> { });
+    }
+
+    public SingleFlight(Listener<K> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Run the loader for the key, or join the computation already running for it
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            listener.onCall(key, true);
+            return await(running);
+        }
+
+        // Whatever ends this call, including an Error or a throwing listener, must release the waiters
+        try {
+            listener.onCall(key, false);
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.todoapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangeFeed;
+import com.todoapp.repository.TodoChangeMarker;
+import com.todoapp.repository.TodoPatch;
+import com.todoapp.repository.TodoVersionView;
+import com.todoapp.repository.TodoView;
+import com.todoapp.repository.TodoWriteResult;
+import com.todoapp.service.TodoExportService;
+import com.todoapp.service.TodoImportService;
+import com.todoapp.service.TodoService;
+import com.todoapp.service.TodoSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional request handling: ETags from the row version and the collection change counter, If-None-Match
+ * revalidation and If-Match preconditions on writes
+ */
+class TodoControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 10, 15, 12, 0);
+
+    private final TodoService todoService = mock(TodoService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TodoController controller = new TodoController(todoService, mock(TodoImportService.class),
+                mock(TodoExportService.class), mock(TodoSyncService.class), mock(TodoChangeFeed.class), objectMapper,
+                mock(ObjectProvider.class), mock(ObjectProvider.class), 100, 5000, 0.3);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Test
+    void getByIdCarriesTheVersionETagAndLastModifiedInUtc() throws Exception {
+        when(todoService.getTodoById(1L)).thenReturn(Optional.of(view(1L, 3L)));
+
+        mockMvc.perform(get("/api/todos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, httpDate(UPDATED_AT)))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void revalidatingAnUnchangedTodoAnswers304WithoutLoadingIt() throws Exception {
+        when(todoService.getTodoVersion(1L)).thenReturn(Optional.of(version(3L)));
+
+        mockMvc.perform(get("/api/todos/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified());
+
+        verify(todoService, never()).getTodoById(any());
+    }
+
+    @Test
+    void revalidatingAChangedTodoReturnsIt() throws Exception {
+        when(todoService.getTodoVersion(1L)).thenReturn(Optional.of(version(4L)));
+        when(todoService.getTodoById(1L)).thenReturn(Optional.of(view(1L, 4L)));
+
+        mockMvc.perform(get("/api/todos/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void collectionsAreRevalidatedAgainstTheChangeCounter() throws Exception {
+        TodoChangeMarker marker = () -> 42L;
+        when(todoService.getChangeMarker()).thenReturn(marker);
+        when(todoService.getAllTodos()).thenReturn(List.of(view(1L, 0L)));
+
+        mockMvc.perform(get("/api/todos/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"c42\""))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+        mockMvc.perform(get("/api/todos/all").header(HttpHeaders.IF_NONE_MATCH, "W/\"c42\""))
+                .andExpect(status().isNotModified());
+
+        verify(todoService).getAllTodos();
+    }
+
+    @Test
+    void aPatchWithAStaleIfMatchAnswers412() throws Exception {
+        when(todoService.patchTodo(eq(1L), any(TodoPatch.class), eq(2L)))
+                .thenReturn(TodoWriteResult.versionMismatch());
+
+        mockMvc.perform(patch("/api/todos/1")
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void aPatchOfAMissingTodoAnswers404EvenWithIfMatch() throws Exception {
+        when(todoService.patchTodo(eq(9L), any(TodoPatch.class), eq(2L))).thenReturn(TodoWriteResult.notFound());
+
+        mockMvc.perform(patch("/api/todos/9")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .content("{\"completed\":true}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void anAppliedPatchReturnsTheNewVersionETag() throws Exception {
+        Todo todo = todo(1L, 3L);
+        when(todoService.patchTodo(eq(1L), any(TodoPatch.class), eq(2L))).thenReturn(TodoWriteResult.applied(todo));
+
+        mockMvc.perform(patch("/api/todos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void weakOrMalformedIfMatchTagsNeverMatch() throws Exception {
+        when(todoService.deleteTodo(1L, -1L)).thenReturn(TodoWriteResult.versionMismatch());
+
+        mockMvc.perform(delete("/api/todos/1").header(HttpHeaders.IF_MATCH, "W/\"2\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/todos/1").header(HttpHeaders.IF_MATCH, "\"two\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void aWildcardIfMatchWritesUnconditionally() throws Exception {
+        when(todoService.updateTodo(eq(1L), any(Todo.class), isNull()))
+                .thenReturn(TodoWriteResult.applied(todo(1L, 1L)));
+
+        mockMvc.perform(put("/api/todos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"title\":\"Replaced\",\"priority\":\"LOW\"}"))
+                .andExpect(status().isOk());
+
+        verify(todoService).updateTodo(eq(1L), any(Todo.class), isNull());
+    }
+
+    @Test
+    void aDeleteWithTheCurrentVersionAnswers204() throws Exception {
+        when(todoService.deleteTodo(1L, 5L)).thenReturn(TodoWriteResult.deleted());
+
+        mockMvc.perform(delete("/api/todos/1").header(HttpHeaders.IF_MATCH, "\"5\""))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void theSuggestEndpointIsUnavailableWhileTheIndexIsDisabled() throws Exception {
+        mockMvc.perform(get("/api/todos/suggest").param("prefix", "wri"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    private static TodoView view(long id, long version) {
+        return new TodoView(id, "todo " + id, null, false, UPDATED_AT.minusDays(1), UPDATED_AT, null,
+                Todo.Priority.MEDIUM, version);
+    }
+
+    private static Todo todo(long id, long version) {
+        Todo todo = new Todo("todo " + id);
+        todo.setId(id);
+        todo.setCreatedAt(UPDATED_AT.minusDays(1));
+        todo.setUpdatedAt(UPDATED_AT);
+        // The version is only ever set by Hibernate
+        ReflectionTestUtils.setField(todo, "version", version);
+        return todo;
+    }
+
+    private static TodoVersionView version(long version) {
+        return new TodoVersionView() {
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return UPDATED_AT;
+            }
+        };
+    }
+
+    private static String httpDate(LocalDateTime utc) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(utc.atOffset(ZoneOffset.UTC)).replace("+0000", "GMT");
+    }
+}
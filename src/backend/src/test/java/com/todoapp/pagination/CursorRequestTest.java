@@ -0,0 +1,64 @@
+package com.todoapp.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorRequestTest {
+
+    @Test
+    void aCursorRoundTripsThroughItsToken() {
+        String token = new TodoCursor("createdAt", true, "2026-10-15T08:30:00.123456", 251).encode();
+
+        CursorRequest request = CursorRequest.of("createdAt", "desc", token, 20);
+
+        assertThat(request.getSortField()).isEqualTo(TodoSortField.CREATED_AT);
+        assertThat(request.isDescending()).isTrue();
+        assertThat(request.getAfter().getId()).isEqualTo(251);
+        assertThat(request.getSortField().parseSortKey(request.getAfter().getSortKey()))
+                .isEqualTo(LocalDateTime.of(2026, 10, 15, 8, 30, 0, 123_456_000));
+    }
+
+    @Test
+    void anEmptyTokenRequestsTheFirstPage() {
+        assertThat(CursorRequest.of("id", "asc", "", 10).getAfter()).isNull();
+    }
+
+    @Test
+    void aCursorIsOnlyValidForTheOrderItWasIssuedFor() {
+        String token = new TodoCursor("createdAt", true, "2026-10-15T08:30:00", 251).encode();
+
+        assertThatThrownBy(() -> CursorRequest.of("createdAt", "asc", token, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorRequest.of("id", "desc", token, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedTokensAndUnindexedSortFieldsAreRejected() {
+        assertThatThrownBy(() -> CursorRequest.of("id", "desc", "not a cursor!", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorRequest.of("title", "desc", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void aChangeTokenPageRoundTrips() {
+        LocalDateTime watermark = LocalDateTime.of(2026, 10, 15, 8, 0);
+        LocalDateTime target = watermark.plusMinutes(5);
+        LocalDateTime updatedAt = watermark.plusMinutes(1);
+
+        ChangeToken page = ChangeToken.decode(ChangeToken.page(watermark, target, updatedAt, 51).encode());
+
+        assertThat(page.isPage()).isTrue();
+        assertThat(page.getWatermark()).isEqualTo(watermark);
+        assertThat(page.getTarget()).isEqualTo(target);
+        assertThat(page.getAfterUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(page.getAfterId()).isEqualTo(51);
+        assertThat(ChangeToken.decode(new ChangeToken(watermark).encode()).isPage()).isFalse();
+        assertThatThrownBy(() -> ChangeToken.decode("garbage")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
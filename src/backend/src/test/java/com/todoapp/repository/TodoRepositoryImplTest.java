@@ -0,0 +1,158 @@
+package com.todoapp.repository;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.pagination.CursorRequest;
+import com.todoapp.pagination.TodoCursor;
+import com.todoapp.pagination.TodoSortField;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Native SQL of {@link TodoRepositoryImpl} against the PostgreSQL schema from init.sql (triggers, indexes and
+ * the sequence). Needs a database, so it only runs with DB_INTEGRATION_TESTS=true and the DB_* settings of
+ * application.yml; every test runs in a transaction that is rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "DB_INTEGRATION_TESTS", matches = "true")
+class TodoRepositoryImplTest {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void clearTodos() {
+        entityManager.createNativeQuery("DELETE FROM todos").executeUpdate();
+    }
+
+    @Test
+    void copyInAssignsIdsFromTheSequenceAndLeavesTimestampsToTheTrigger() {
+        List<Todo> todos = copy(3);
+
+        assertThat(todos).extracting(Todo::getId).doesNotContainNull().doesNotHaveDuplicates();
+        List<TodoView> stored = todoRepository.findViewsByIds(todos.stream().map(Todo::getId).toList());
+        assertThat(stored).hasSize(3).allSatisfy(view -> {
+            assertThat(view.createdAt()).isNotNull();
+            assertThat(view.version()).isZero();
+        });
+    }
+
+    @Test
+    void keysetPagesOverCreatedAtTiesNeitherSkipNorRepeatRows() {
+        // Rows written in one transaction share created_at, so only the id tiebreak orders them
+        List<Long> ids = copy(5).stream().map(Todo::getId).sorted((a, b) -> Long.compare(b, a)).toList();
+
+        List<Long> paged = new ArrayList<>();
+        String token = null;
+        do {
+            CursorRequest request = CursorRequest.of("createdAt", "desc", token, 2);
+            List<TodoView> page = todoRepository.findSlice(TodoFilter.all(), request, 2);
+            page.forEach(view -> paged.add(view.id()));
+            token = page.size() < 2 ? null : cursor(TodoSortField.CREATED_AT, true, page.get(page.size() - 1));
+        } while (token != null);
+
+        assertThat(paged).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void keysetPagesByIdHonourTheFilter() {
+        List<Todo> todos = copy(5);
+        List<Long> completed = new ArrayList<>();
+        for (int i = 0; i < todos.size(); i += 2) {
+            todoRepository.patch(todos.get(i).getId(), TodoPatch.empty().withCompleted(true), null);
+            completed.add(todos.get(i).getId());
+        }
+
+        List<TodoView> first = todoRepository.findSlice(TodoFilter.byStatus(true),
+                CursorRequest.of("id", "asc", null, 2), 2);
+        String token = cursor(TodoSortField.ID, false, first.get(1));
+        List<TodoView> second = todoRepository.findSlice(TodoFilter.byStatus(true),
+                CursorRequest.of("id", "asc", token, 2), 2);
+
+        assertThat(first).extracting(TodoView::id).containsExactlyElementsOf(completed.subList(0, 2));
+        assertThat(second).extracting(TodoView::id).containsExactly(completed.get(2));
+    }
+
+    @Test
+    void aPatchAtTheExpectedVersionIsAppliedAndBumpsIt() {
+        long id = copy(1).get(0).getId();
+
+        TodoWriteResult result = todoRepository.patch(id, TodoPatch.empty().withTitle("Renamed"), 0L);
+
+        assertThat(result.getStatus()).isEqualTo(TodoWriteResult.Status.APPLIED);
+        assertThat(result.getTodo()).hasValueSatisfying(todo -> {
+            assertThat(todo.getTitle()).isEqualTo("Renamed");
+            assertThat(todo.getVersion()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void aPatchAtAStaleVersionIsAMismatchAndChangesNothing() {
+        long id = copy(1).get(0).getId();
+        todoRepository.patch(id, TodoPatch.empty().withCompleted(true), null);
+
+        TodoWriteResult result = todoRepository.patch(id, TodoPatch.empty().withTitle("Renamed"), 0L);
+
+        assertThat(result.getStatus()).isEqualTo(TodoWriteResult.Status.VERSION_MISMATCH);
+        assertThat(todoRepository.findViewsByIds(List.of(id))).singleElement().satisfies(view -> {
+            assertThat(view.title()).isEqualTo("todo 0");
+            assertThat(view.version()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void aPatchOfAMissingTodoIsNotFoundWhateverTheVersion() {
+        TodoPatch patch = TodoPatch.empty().withTitle("Renamed");
+
+        assertThat(todoRepository.patch(-1L, patch, 0L).getStatus()).isEqualTo(TodoWriteResult.Status.NOT_FOUND);
+        assertThat(todoRepository.patch(-1L, patch, null).getStatus()).isEqualTo(TodoWriteResult.Status.NOT_FOUND);
+    }
+
+    @Test
+    void deleteIfVersionTellsAConflictFromAMissingTodo() {
+        long id = copy(1).get(0).getId();
+
+        assertThat(todoRepository.deleteIfVersion(id, 7L).getStatus())
+                .isEqualTo(TodoWriteResult.Status.VERSION_MISMATCH);
+        assertThat(todoRepository.deleteIfVersion(id, 0L).getStatus()).isEqualTo(TodoWriteResult.Status.APPLIED);
+        assertThat(todoRepository.deleteIfVersion(id, 0L).getStatus()).isEqualTo(TodoWriteResult.Status.NOT_FOUND);
+    }
+
+    @Test
+    void bulkSlicesTouchOnlyMatchingIdsUpToTheLimit() {
+        List<Long> ids = copy(4).stream().map(Todo::getId).toList();
+
+        List<Todo> updated = todoRepository.updateSlice(ids, TodoFilter.all(), TodoBulkUpdate.completed(true), 3);
+        List<Long> deleted = todoRepository.deleteSlice(Set.of(ids.get(0), ids.get(3)), TodoFilter.byStatus(true), 10);
+
+        assertThat(updated).extracting(Todo::getId).containsExactlyInAnyOrderElementsOf(ids.subList(0, 3));
+        assertThat(deleted).containsExactly(ids.get(0));
+        assertThat(todoRepository.findViewsByIds(ids)).extracting(TodoView::id)
+                .containsExactlyInAnyOrder(ids.get(1), ids.get(2), ids.get(3));
+    }
+
+    private List<Todo> copy(int count) {
+        List<Todo> todos = IntStream.range(0, count).mapToObj(i -> new Todo("todo " + i)).toList();
+        todoRepository.copyIn(todos);
+        return todos;
+    }
+
+    private static String cursor(TodoSortField field, boolean descending, TodoView last) {
+        return new TodoCursor(field.getProperty(), descending, field.sortKeyOf(last), last.id()).encode();
+    }
+}
@@ -0,0 +1,148 @@
+package com.todoapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.entity.Todo;
+import com.todoapp.event.TodoChangedEvent;
+import com.todoapp.metrics.TodoMetrics;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.service.TodoImportService.ImportFormat;
+import com.todoapp.service.TodoImportService.ImportReport;
+import com.todoapp.service.TodoImportService.ImportState;
+import com.todoapp.service.TodoImportService.RejectedRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TodoImportServiceImplTest {
+
+    private final TodoRepository todoRepository = mock(TodoRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    // Copied at call time: the service clears and reuses its chunk list after every COPY
+    private final List<List<String>> copiedChunks = new ArrayList<>();
+    private long nextId = 251;
+    private TodoImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new TodoImportServiceImpl(todoRepository, validatorFactory.getValidator(),
+                new TodoMetrics(new SimpleMeterRegistry()), eventPublisher, mock(PlatformTransactionManager.class),
+                new ObjectMapper(), 2, 10, 5);
+        when(todoRepository.currentTransactionTime()).thenReturn(LocalDateTime.of(2026, 10, 15, 12, 0));
+        doAnswer(this::copy).when(todoRepository).copyIn(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void invalidCsvRowsAreRejectedOnTheirOwnAndValidRowsAreCopiedInChunks() {
+        String csv = """
+                title,description,completed,priority,dueDate
+                Write report,quarterly,false,high,2026-11-01T09:00:00
+                Bad priority,,false,someday,
+                ,missing title,false,LOW,
+                Too many,fields,false,LOW,,extra
+                Bad date,,false,LOW,next tuesday
+                Ship it,,true,,
+                Review,,false,URGENT,
+                """;
+
+        ImportReport report = importService.importTodos(body(csv), ImportFormat.CSV);
+
+        assertThat(report.getState()).isEqualTo(ImportState.COMPLETED);
+        assertThat(report.getRowsRead()).isEqualTo(7);
+        assertThat(report.getRowsImported()).isEqualTo(3);
+        assertThat(report.getRowsRejected()).isEqualTo(4);
+        assertThat(report.getRejectedRows()).extracting(RejectedRow::getLine).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(report.getRejectedRows()).extracting(RejectedRow::getReason).satisfiesExactly(
+                reason -> assertThat(reason).contains("Invalid priority"),
+                reason -> assertThat(reason).contains("Title is required"),
+                reason -> assertThat(reason).startsWith("Malformed CSV"),
+                reason -> assertThat(reason).contains("Invalid dueDate"));
+        assertThat(copiedChunks).containsExactly(List.of("Write report", "Ship it"), List.of("Review"));
+        verify(eventPublisher, times(3)).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    @Test
+    void malformedNdjsonLinesAreRejectedWithTheirLineNumber() {
+        String ndjson = """
+                {"title":"First"}
+                {"title": broken
+
+                {"title":"Second","priority":"LOW","due_date":"2026-11-01T09:00:00"}
+                """;
+
+        ImportReport report = importService.importTodos(body(ndjson), ImportFormat.NDJSON);
+
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(report.getRejectedRows()).singleElement().satisfies(rejected -> {
+            assertThat(rejected.getLine()).isEqualTo(2);
+            assertThat(rejected.getReason()).startsWith("Malformed JSON");
+        });
+    }
+
+    @Test
+    void aFailedCopyFailsTheImportButKeepsEarlierChunks() {
+        doAnswer(this::copy).doThrow(new IllegalStateException("COPY failed")).when(todoRepository).copyIn(anyList());
+        String csv = "title\nOne\nTwo\nThree\nFour\n";
+
+        ImportReport report = importService.importTodos(body(csv), ImportFormat.CSV);
+
+        assertThat(report.getState()).isEqualTo(ImportState.FAILED);
+        assertThat(report.getFailure()).isEqualTo("COPY failed");
+        assertThat(report.getRowsImported()).isEqualTo(2);
+        assertThat(copiedChunks).hasSize(1);
+        assertThat(importService.getImport(report.getId())).isPresent();
+    }
+
+    @Test
+    void nothingIsCopiedWhenEveryRowIsRejected() {
+        doThrow(new AssertionError("no rows to copy")).when(todoRepository).copyIn(anyList());
+
+        ImportReport report = importService.importTodos(body("title,priority\n,LOW\nX,NONE\n"), ImportFormat.CSV);
+
+        assertThat(report.getState()).isEqualTo(ImportState.COMPLETED);
+        assertThat(report.getRowsRejected()).isEqualTo(2);
+        verify(eventPublisher, never()).publishEvent(any(TodoChangedEvent.class));
+    }
+
+    /**
+     * Stands in for COPY: assigns ids from the sequence like the repository does and records the titles
+     */
+    private Object copy(InvocationOnMock invocation) {
+        List<Todo> chunk = invocation.getArgument(0);
+        chunk.forEach(todo -> todo.setId(nextId++));
+        copiedChunks.add(chunk.stream().map(Todo::getTitle).toList());
+        return null;
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
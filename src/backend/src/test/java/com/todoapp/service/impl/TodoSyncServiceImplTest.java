@@ -0,0 +1,93 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.entity.Todo;
+import com.todoapp.pagination.ChangeToken;
+import com.todoapp.repository.TodoRepository;
+import com.todoapp.repository.TodoView;
+import com.todoapp.service.TodoSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TodoSyncServiceImplTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 15, 12, 0);
+
+    private final TodoRepository todoRepository = mock(TodoRepository.class);
+    private TodoSyncServiceImpl syncService;
+
+    @BeforeEach
+    void setUp() {
+        syncService = new TodoSyncServiceImpl(todoRepository, mock(PlatformTransactionManager.class),
+                Duration.ofSeconds(5), Duration.ofDays(7), 2);
+        when(todoRepository.currentDatabaseTime()).thenReturn(NOW);
+    }
+
+    @Test
+    void aTokenOlderThanTheTombstoneRetentionIsExpired() {
+        String token = new ChangeToken(NOW.minusDays(8)).encode();
+
+        assertThatThrownBy(() -> syncService.getChangesSince(token))
+                .isInstanceOf(TodoSyncService.ChangeTokenExpiredException.class);
+        verify(todoRepository, never()).findChangedSlice(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void aTokenWithinTheRetentionReturnsChangesAndDeletions() {
+        LocalDateTime since = NOW.minusDays(6);
+        when(todoRepository.findChangedSlice(eq(since), isNull(), isNull(), eq(3))).thenReturn(List.of(view(1)));
+        when(todoRepository.findDeletedSince(since)).thenReturn(List.of(51L));
+
+        TodoSyncService.ChangeSet changes = syncService.getChangesSince(new ChangeToken(since).encode());
+
+        assertThat(changes.getChanged()).extracting(TodoView::id).containsExactly(1L);
+        assertThat(changes.getDeleted()).containsExactly(51L);
+        assertThat(changes.isHasMore()).isFalse();
+        // The next watermark trails the database clock by the commit-lag window
+        assertThat(ChangeToken.decode(changes.getToken()).getWatermark()).isEqualTo(NOW.minusSeconds(5));
+    }
+
+    @Test
+    void aLargeDeltaIsPagedAndDeletionsComeWithTheLastPage() {
+        LocalDateTime since = NOW.minusHours(1);
+        when(todoRepository.findChangedSlice(eq(since), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(view(1), view(51), view(101)));
+
+        TodoSyncService.ChangeSet first = syncService.getChangesSince(new ChangeToken(since).encode());
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getChanged()).extracting(TodoView::id).containsExactly(1L, 51L);
+        assertThat(first.getDeleted()).isEmpty();
+        ChangeToken next = ChangeToken.decode(first.getToken());
+        assertThat(next.getAfterId()).isEqualTo(51L);
+        assertThat(next.getWatermark()).isEqualTo(since);
+        assertThat(next.getTarget()).isEqualTo(NOW.minusSeconds(5));
+        verify(todoRepository, never()).findDeletedSince(any());
+    }
+
+    @Test
+    void aMalformedTokenIsRejected() {
+        assertThatThrownBy(() -> syncService.getChangesSince("not-a-token"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TodoView view(long id) {
+        LocalDateTime updatedAt = NOW.minusMinutes(30).plusSeconds(id);
+        return new TodoView(id, "todo " + id, null, false, updatedAt, updatedAt, null, Todo.Priority.MEDIUM, 0L);
+    }
+}
@@ -0,0 +1,98 @@
+package com.todoapp.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchLoaderTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+    private BatchLoader<Long, String> loader;
+
+    @AfterEach
+    void stop() {
+        if (loader != null) {
+            loader.shutdown();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void loadsWithinTheWindowShareOneBatchAndMissingKeysLoadAsNull() throws Exception {
+        loader = loader(this::titles, Duration.ofMillis(200));
+
+        Future<String> first = callers.submit(() -> loader.load(1L));
+        Future<String> second = callers.submit(() -> loader.load(2L));
+        Future<String> missing = callers.submit(() -> loader.load(404L));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("todo 1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("todo 2");
+        assertThat(missing.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(batches).containsExactly(Set.of(1L, 2L, 404L));
+    }
+
+    @Test
+    void aFullBatchIsDispatchedWithoutWaitingForTheWindow() throws Exception {
+        loader = new BatchLoader<>("test-loader", this::titles, Duration.ofMinutes(1), 2, 1, (size, wait) -> { });
+
+        Future<String> first = callers.submit(() -> loader.load(1L));
+        Future<String> second = callers.submit(() -> loader.load(2L));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("todo 1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("todo 2");
+    }
+
+    @Test
+    void aFailedBatchFailsEveryCaller() throws Exception {
+        loader = loader(keys -> {
+            throw new IllegalStateException("database down");
+        }, Duration.ofMillis(100));
+
+        Future<String> first = callers.submit(() -> loader.load(1L));
+        Future<String> second = callers.submit(() -> loader.load(2L));
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shutdownLoadsTheOpenBatchAndRejectsNewLoads() throws Exception {
+        loader = loader(this::titles, Duration.ofMinutes(1));
+
+        Future<String> waiting = callers.submit(() -> loader.load(1L));
+        Thread.sleep(100);
+        loader.shutdown();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("todo 1");
+        assertThatThrownBy(() -> loader.load(2L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shut down");
+    }
+
+    private BatchLoader<Long, String> loader(Function<Set<Long>, Map<Long, String>> batchFunction,
+                                             Duration window) {
+        return new BatchLoader<>("test-loader", batchFunction, window, 100, 1, (size, wait) -> { });
+    }
+
+    private Map<Long, String> titles(Set<Long> ids) {
+        batches.add(Set.copyOf(ids));
+        Map<Long, String> titles = new HashMap<>();
+        ids.stream().filter(id -> id != 404L).forEach(id -> titles.put(id, "todo " + id));
+        return titles;
+    }
+}
@@ -0,0 +1,124 @@
+package com.todoapp.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitterTest {
+
+    private final ExecutorService submitters = Executors.newFixedThreadPool(4);
+    private final List<List<String>> written = new CopyOnWriteArrayList<>();
+    private GroupCommitter<String> committer;
+
+    @AfterEach
+    void stop() {
+        if (committer != null) {
+            committer.shutdown();
+        }
+        submitters.shutdownNow();
+    }
+
+    @Test
+    void itemsSubmittedWithinTheDelayAreWrittenAsOneBatch() throws Exception {
+        committer = committer(written::add, Duration.ofMillis(200), Duration.ofSeconds(5));
+
+        Future<?> first = submitters.submit(() -> committer.submit("a"));
+        Future<?> second = submitters.submit(() -> committer.submit("b"));
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0)).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void aFailedBatchIsRetriedItemByItemSoOnlyTheBadItemFails() throws Exception {
+        committer = committer(items -> {
+            if (items.contains("bad")) {
+                throw new IllegalArgumentException("rejected " + items);
+            }
+            written.add(items);
+        }, Duration.ofMillis(200), Duration.ofSeconds(5));
+
+        Future<?> good = submitters.submit(() -> committer.submit("good"));
+        Future<?> bad = submitters.submit(() -> committer.submit("bad"));
+
+        good.get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(written).containsExactly(List.of("good"));
+    }
+
+    @Test
+    void aSubmitThatTimesOutBeforeBeingTakenIsWithdrawn() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        committer = committer(items -> {
+            writing.countDown();
+            await(release);
+            written.add(items);
+        }, Duration.ZERO, Duration.ofMillis(200));
+
+        Future<?> blocking = submitters.submit(() -> committer.submit("first"));
+        await(writing);
+        assertThatThrownBy(() -> committer.submit("second"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("the item was not written");
+        release.countDown();
+
+        assertThatThrownBy(() -> blocking.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        committer.shutdown();
+        assertThat(written).containsExactly(List.of("first"));
+    }
+
+    @Test
+    void shutdownWritesWhatIsQueuedAndRejectsNewSubmits() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        committer = committer(items -> {
+            writing.countDown();
+            await(release);
+            written.add(items);
+        }, Duration.ZERO, Duration.ofSeconds(5));
+
+        Future<?> first = submitters.submit(() -> committer.submit("first"));
+        await(writing);
+        Future<?> queued = submitters.submit(() -> committer.submit("queued"));
+        Thread.sleep(100);
+        Future<?> shutdown = submitters.submit(committer::shutdown);
+        release.countDown();
+
+        shutdown.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        assertThat(written).containsExactly(List.of("first"), List.of("queued"));
+        assertThatThrownBy(() -> committer.submit("late"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shut down");
+    }
+
+    private GroupCommitter<String> committer(Consumer<List<String>> writer, Duration maxDelay,
+                                             Duration submitTimeout) {
+        return new GroupCommitter<>("test-committer", writer, 10, maxDelay, submitTimeout, (size, nanos) -> { });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
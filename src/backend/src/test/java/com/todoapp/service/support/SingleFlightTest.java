@@ -0,0 +1,124 @@
+package com.todoapp.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void stopCallers() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForOneKeyShareOneComputation() throws Exception {
+        AtomicInteger shared = new AtomicInteger();
+        SingleFlight<String, Integer> flight = new SingleFlight<>((key, joined) -> {
+            if (joined) {
+                shared.incrementAndGet();
+            }
+        });
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = callers.submit(() -> flight.execute("statistics", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return 42;
+        }));
+        awaitUntil(() -> loads.get() == 1);
+
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(callers.submit(() -> flight.execute("statistics", () -> {
+                loads.incrementAndGet();
+                return -1;
+            })));
+        }
+        awaitUntil(() -> shared.get() == 3);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        for (Future<Integer> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void aFinishedComputationIsNotReused() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("key", loads::incrementAndGet);
+        flight.execute("key", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void anErrorInTheLoaderReleasesWaitersAndTheKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        SingleFlight<String, Integer> flight = new SingleFlight<>((key, shared) -> {
+            if (shared) {
+                joined.incrementAndGet();
+            }
+        });
+        Future<Integer> leader = callers.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw new AssertionError("boom");
+        }));
+        await(started);
+        Future<Integer> follower = callers.submit(() -> flight.execute("key", () -> 0));
+        awaitUntil(() -> joined.get() == 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        // The failed computation is not left behind for the next caller
+        assertThat(flight.execute("key", () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void aRuntimeExceptionReachesTheCallerUnwrapped() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        assertThatThrownBy(() -> flight.execute("key", () -> {
+            throw new IllegalStateException("query failed");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("query failed");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition within 5s").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 -- PostgreSQL Database Initialization Script for Todo Application
--- This script creates the database, user, and initial schema
+-- This script creates the database, user, and initial schema.
+-- It is idempotent and doubles as the upgrade script: run it again against an existing database
+-- (psql -f src/database/init.sql) to add whatever the current backend expects. The init-scripts
+-- ConfigMaps under k8s/ and helm/ carry a copy; refresh them with scripts/sync-init-scripts.sh.
 
 -- Create database (run as postgres superuser)
 -- CREATE DATABASE tododb;
@@ -29,45 +32,270 @@ CREATE TABLE IF NOT EXISTS todos (
     completed BOOLEAN NOT NULL DEFAULT FALSE,
     priority VARCHAR(20) NOT NULL DEFAULT 'MEDIUM' CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
     due_date TIMESTAMP,
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC'),
+    updated_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC')
 );
 
+-- Optimistic concurrency: every write bumps the version and conditional writes (If-Match) compare it
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- The backend reserves ids in blocks of 50 (Hibernate pooled-lo optimizer) so inserts can be batched;
+-- the sequence must step by the same allocation size
+ALTER SEQUENCE todos_id_seq INCREMENT BY 50;
+
 -- Create indexes for better performance
-CREATE INDEX IF NOT EXISTS idx_todos_completed ON todos(completed);
-CREATE INDEX IF NOT EXISTS idx_todos_priority ON todos(priority);
 CREATE INDEX IF NOT EXISTS idx_todos_due_date ON todos(due_date);
 CREATE INDEX IF NOT EXISTS idx_todos_created_at ON todos(created_at);
-CREATE INDEX IF NOT EXISTS idx_todos_title ON todos USING gin(to_tsvector('english', title));
-CREATE INDEX IF NOT EXISTS idx_todos_description ON todos USING gin(to_tsvector('english', description));
 
--- Create function to update updated_at timestamp
+-- Stored full-text document (title weighted above description) backing ranked search.
+-- Replaces the per-column idx_todos_title/idx_todos_description expression indexes.
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+        setweight(to_tsvector('english', COALESCE(description, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_todos_search_vector ON todos USING gin(search_vector);
+DROP INDEX IF EXISTS idx_todos_title;
+DROP INDEX IF EXISTS idx_todos_description;
+
+-- Trigram indexes so substring (ILIKE '%frag%') and typo-tolerant (<%) searches become index scans
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_todos_title_trgm ON todos USING gin(title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_todos_description_trgm ON todos USING gin(description gin_trgm_ops);
+
+-- Composite indexes backing keyset pagination: WHERE (sort_key, id) < (?, ?) ORDER BY sort_key, id,
+-- one per sortable field (TodoSortField) unfiltered and under each equality filter (completed, priority)
+CREATE INDEX IF NOT EXISTS idx_todos_created_at_id ON todos(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_todos_completed_created_at_id ON todos(completed, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_todos_priority_created_at_id ON todos(priority, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_todos_completed_id ON todos(completed, id);
+CREATE INDEX IF NOT EXISTS idx_todos_priority_id ON todos(priority, id);
+-- Superseded by the composites above, which lead with the same column
+DROP INDEX IF EXISTS idx_todos_completed;
+DROP INDEX IF EXISTS idx_todos_priority;
+
+-- created_at/updated_at are stamped here from the database clock in UTC, whatever the client sends,
+-- so every backend pod and the delta-sync watermark share one clock and time zone
+ALTER TABLE todos ALTER COLUMN created_at SET DEFAULT (now() AT TIME ZONE 'UTC');
+ALTER TABLE todos ALTER COLUMN updated_at SET DEFAULT (now() AT TIME ZONE 'UTC');
+
+-- Create function to stamp created_at on insert and updated_at on every write
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.updated_at = CURRENT_TIMESTAMP;
+    IF TG_OP = 'INSERT' THEN
+        NEW.created_at = now() AT TIME ZONE 'UTC';
+    ELSE
+        NEW.created_at = OLD.created_at;
+    END IF;
+    NEW.updated_at = now() AT TIME ZONE 'UTC';
     RETURN NEW;
 END;
 $$ language 'plpgsql';
 
--- Create trigger to automatically update updated_at
-CREATE TRIGGER update_todos_updated_at 
-    BEFORE UPDATE ON todos 
-    FOR EACH ROW 
+-- Create trigger to automatically stamp created_at and updated_at
+CREATE OR REPLACE TRIGGER update_todos_updated_at
+    BEFORE INSERT OR UPDATE ON todos
+    FOR EACH ROW
     EXECUTE FUNCTION update_updated_at_column();
 
+-- Create striped summary counters for O(1) statistics.
+-- Each (priority, completed) bucket is split over 16 slots; writers pick a random slot
+-- so concurrent transactions rarely contend on the same row, and readers sum the slots.
+CREATE TABLE IF NOT EXISTS todo_counters (
+    slot SMALLINT NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    completed BOOLEAN NOT NULL,
+    todo_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (slot, priority, completed)
+);
+
+-- Partial index so the time-dependent overdue count only touches open todos with a due date
+CREATE INDEX IF NOT EXISTS idx_todos_open_due_date ON todos(due_date) WHERE completed = FALSE;
+
+-- Create function to apply counter deltas from statement transition tables
+CREATE OR REPLACE FUNCTION update_todo_counters()
+RETURNS TRIGGER AS $$
+DECLARE
+    counter_slot SMALLINT := floor(random() * 16)::SMALLINT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO todo_counters AS c (slot, priority, completed, todo_count)
+        SELECT counter_slot, priority, completed, COUNT(*)
+        FROM new_rows
+        GROUP BY priority, completed
+        ORDER BY priority, completed
+        ON CONFLICT (slot, priority, completed) DO UPDATE SET todo_count = c.todo_count + EXCLUDED.todo_count;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO todo_counters AS c (slot, priority, completed, todo_count)
+        SELECT counter_slot, priority, completed, -COUNT(*)
+        FROM old_rows
+        GROUP BY priority, completed
+        ORDER BY priority, completed
+        ON CONFLICT (slot, priority, completed) DO UPDATE SET todo_count = c.todo_count + EXCLUDED.todo_count;
+    ELSE
+        INSERT INTO todo_counters AS c (slot, priority, completed, todo_count)
+        SELECT counter_slot, priority, completed, SUM(delta)
+        FROM (
+            SELECT priority, completed, 1 AS delta FROM new_rows
+            UNION ALL
+            SELECT priority, completed, -1 AS delta FROM old_rows
+        ) changes
+        GROUP BY priority, completed
+        HAVING SUM(delta) <> 0
+        ORDER BY priority, completed
+        ON CONFLICT (slot, priority, completed) DO UPDATE SET todo_count = c.todo_count + EXCLUDED.todo_count;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Create statement-level triggers so bulk writes apply one aggregated delta per statement
+CREATE OR REPLACE TRIGGER update_todo_counters_insert
+    AFTER INSERT ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION update_todo_counters();
+
+CREATE OR REPLACE TRIGGER update_todo_counters_update
+    AFTER UPDATE ON todos
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION update_todo_counters();
+
+CREATE OR REPLACE TRIGGER update_todo_counters_delete
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION update_todo_counters();
+
+-- Collection change counter for cache validators: every statement that inserts, updates or deletes rows
+-- adds its row count, so the sum changes exactly when a committed write does, whatever the timestamps say.
+-- Striped like todo_counters so concurrent writes rarely contend on the same row.
+-- Replaces the todo_deletions counter of earlier releases
+DROP TRIGGER IF EXISTS count_todo_deletions ON todos;
+DROP FUNCTION IF EXISTS count_todo_deletions();
+DROP TABLE IF EXISTS todo_deletions;
+
+CREATE TABLE IF NOT EXISTS todo_changes (
+    slot SMALLINT PRIMARY KEY,
+    change_count BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION count_todo_changes()
+RETURNS TRIGGER AS $$
+DECLARE
+    changed BIGINT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        SELECT COUNT(*) INTO changed FROM old_rows;
+    ELSE
+        SELECT COUNT(*) INTO changed FROM new_rows;
+    END IF;
+    IF changed > 0 THEN
+        INSERT INTO todo_changes AS c (slot, change_count)
+        VALUES (floor(random() * 16)::SMALLINT, changed)
+        ON CONFLICT (slot) DO UPDATE SET change_count = c.change_count + EXCLUDED.change_count;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE OR REPLACE TRIGGER count_todo_changes_insert
+    AFTER INSERT ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION count_todo_changes();
+
+CREATE OR REPLACE TRIGGER count_todo_changes_update
+    AFTER UPDATE ON todos
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION count_todo_changes();
+
+CREATE OR REPLACE TRIGGER count_todo_changes_delete
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION count_todo_changes();
+
+-- Backs the delta-sync range scan
+CREATE INDEX IF NOT EXISTS idx_todos_updated_at_id ON todos(updated_at, id);
+
+-- Deletion log for delta sync (/api/todos/changes); the backend prunes entries older than
+-- app.sync.tombstone-retention and answers older change tokens with 410 Gone
+CREATE TABLE IF NOT EXISTS todo_tombstones (
+    id BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL DEFAULT (now() AT TIME ZONE 'UTC')
+);
+CREATE INDEX IF NOT EXISTS idx_todo_tombstones_deleted_at ON todo_tombstones(deleted_at, id);
+
+CREATE OR REPLACE FUNCTION record_todo_tombstones()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO todo_tombstones (id, deleted_at)
+    SELECT id, now() AT TIME ZONE 'UTC' FROM old_rows
+    ON CONFLICT (id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE OR REPLACE TRIGGER record_todo_tombstones
+    AFTER DELETE ON todos
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION record_todo_tombstones();
+
+-- Create function to correct counter drift without blocking writers.
+-- Both sides are read from the same statement snapshot, so the difference is applied as a delta
+-- on top of whatever concurrent transactions commit meanwhile. Returns the total absolute drift.
+CREATE OR REPLACE FUNCTION reconcile_todo_counters()
+RETURNS BIGINT AS $$
+DECLARE
+    drift BIGINT;
+BEGIN
+    WITH actual AS (
+        SELECT priority, completed, COUNT(*) AS todo_count FROM todos GROUP BY priority, completed
+    ), recorded AS (
+        SELECT priority, completed, SUM(todo_count) AS todo_count FROM todo_counters GROUP BY priority, completed
+    ), corrections AS (
+        INSERT INTO todo_counters AS c (slot, priority, completed, todo_count)
+        SELECT 0, COALESCE(a.priority, r.priority), COALESCE(a.completed, r.completed),
+               COALESCE(a.todo_count, 0) - COALESCE(r.todo_count, 0)
+        FROM actual a
+        FULL JOIN recorded r ON a.priority = r.priority AND a.completed = r.completed
+        WHERE COALESCE(a.todo_count, 0) <> COALESCE(r.todo_count, 0)
+        ON CONFLICT (slot, priority, completed) DO UPDATE SET todo_count = c.todo_count + EXCLUDED.todo_count
+    )
+    SELECT COALESCE(SUM(ABS(COALESCE(a.todo_count, 0) - COALESCE(r.todo_count, 0))), 0)
+    INTO drift
+    FROM actual a
+    FULL JOIN recorded r ON a.priority = r.priority AND a.completed = r.completed;
+    RETURN drift;
+END;
+$$ LANGUAGE plpgsql;
+
 -- Grant permissions to the application user
 GRANT ALL PRIVILEGES ON TABLE todos TO todoapp;
 GRANT USAGE, SELECT ON SEQUENCE todos_id_seq TO todoapp;
+GRANT ALL PRIVILEGES ON TABLE todo_counters TO todoapp;
+GRANT EXECUTE ON FUNCTION reconcile_todo_counters() TO todoapp;
+GRANT ALL PRIVILEGES ON TABLE todo_changes TO todoapp;
+GRANT ALL PRIVILEGES ON TABLE todo_tombstones TO todoapp;
 
--- Insert some sample data for testing
-INSERT INTO todos (title, description, priority, due_date) VALUES
+-- Insert some sample data for testing, only into an empty table so reruns leave existing data alone
+INSERT INTO todos (title, description, priority, due_date)
+SELECT * FROM (VALUES
     ('Complete project documentation', 'Write comprehensive documentation for the Todo application project', 'HIGH', CURRENT_TIMESTAMP + INTERVAL '3 days'),
     ('Review code changes', 'Go through all recent code changes and provide feedback', 'MEDIUM', CURRENT_TIMESTAMP + INTERVAL '1 day'),
     ('Setup monitoring', 'Configure Prometheus and Grafana dashboards', 'URGENT', CURRENT_TIMESTAMP + INTERVAL '6 hours'),
     ('Write unit tests', 'Create comprehensive test coverage for backend services', 'HIGH', CURRENT_TIMESTAMP + INTERVAL '2 days'),
     ('Deploy to staging', 'Deploy the application to staging environment for testing', 'MEDIUM', CURRENT_TIMESTAMP + INTERVAL '4 days')
-ON CONFLICT (id) DO NOTHING;
+) AS sample(title, description, priority, due_date)
+WHERE NOT EXISTS (SELECT 1 FROM todos);
+
+-- Backfill the counters for rows that existed before the counter triggers
+SELECT reconcile_todo_counters();
 
 -- Create view for overdue todos
 CREATE OR REPLACE VIEW overdue_todos AS
@@ -154,9 +382,9 @@ GRANT EXECUTE ON FUNCTION search_todos(TEXT) TO todoapp;
 
 -- Display created objects
 \echo 'Database schema created successfully!'
-\echo 'Tables: todos'
+\echo 'Tables: todos, todo_counters, todo_changes, todo_tombstones'
 \echo 'Views: overdue_todos, todos_due_today, high_priority_todos'
-\echo 'Functions: update_updated_at_column(), get_todo_statistics(), search_todos()'
-\echo 'Triggers: update_todos_updated_at'
+\echo 'Functions: update_updated_at_column(), update_todo_counters(), count_todo_changes(), record_todo_tombstones(), reconcile_todo_counters(), get_todo_statistics(), search_todos()'
+\echo 'Triggers: update_todos_updated_at, update_todo_counters_insert/update/delete, count_todo_changes_insert/update/delete, record_todo_tombstones'
 \echo 'Indexes: Multiple performance indexes created'
-\echo 'Sample data: 5 sample todos inserted'
+\echo 'Sample data: 5 sample todos inserted into an empty table'